@@ -0,0 +1,143 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public class AsyncSubscriber implements Subscriber {
+    private static final int DEFAULT_MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String id;
+    private final PriorityMailbox mailbox;
+    private final Consumer<List<Message>> batchHandler;
+    private final int maxBatch;
+    private final Thread consumerThread;
+    // Thread-safety: set by the consumer before it parks, read by publishers to decide whether to unpark it
+    private volatile boolean parked;
+    // Step: Use volatile for cross-thread visibility of state changes
+    // Thread-safety: volatile ensures TERMINATED is visible to consumer thread immediately
+    private volatile SubscriberState state;
+
+    public AsyncSubscriber(String id, Consumer<Message> messageHandler, int queueCapacity) {
+        this(id, Subscriber.eachMessage(messageHandler), queueCapacity, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * @param queueCapacity capacity of each priority lane
+     */
+    public AsyncSubscriber(String id, Consumer<List<Message>> batchHandler, int queueCapacity, int maxBatch) {
+        this(id, batchHandler, new PriorityMailbox(queueCapacity), maxBatch);
+    }
+
+    /**
+     * @param batchHandler receives up to maxBatch queued messages per call, in the mailbox's drain order
+     *                     (publish order within each priority); the list is reused afterwards, so copy it
+     *                     to keep messages
+     */
+    public AsyncSubscriber(String id, Consumer<List<Message>> batchHandler, PriorityMailbox mailbox, int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive");
+        }
+        this.id = id;
+        // Step: Bounded lane per priority for backpressure control
+        // Why: Prevents unbounded memory growth, and bulk LOW traffic cannot crowd out HIGH messages
+        this.mailbox = mailbox;
+        this.batchHandler = batchHandler;
+        this.maxBatch = maxBatch;
+        this.state = SubscriberState.ACTIVE;
+
+        // Step: Start dedicated consumer thread with descriptive name
+        // Why: Thread isolation means slow handlers don't affect other subscribers
+        this.consumerThread = new Thread(this::consumeLoop, "subscriber-" + id);
+        this.consumerThread.setDaemon(true);  // Won't prevent JVM shutdown
+        this.consumerThread.start();
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        // Step: Early exit if not accepting messages
+        // Thread-safety: volatile read of state is atomic
+        if (state != SubscriberState.ACTIVE) {
+            return;
+        }
+
+        // Step: Non-blocking offer for backpressure; a full lane counts and drops
+        // Why: Waiting for room (or printing per drop) would tie the publisher's latency to this subscriber
+        // Thread-safety: PriorityMailbox.offer is lock-free for any number of publishers
+        if (mailbox.offer(message) && parked) {
+            // Step: Wake the consumer only if it is (about to be) parked
+            // Thread-safety: offer's volatile tail swap precedes this read of parked, and the consumer
+            // writes parked before re-checking the mailbox, so one of the two always sees the other
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    private void consumeLoop() {
+        List<Message> batch = new ArrayList<>(maxBatch);
+        // Step: Loop until explicitly terminated
+        // Thread-safety: volatile read sees writes from shutdown()
+        while (state != SubscriberState.TERMINATED) {
+            // Step: Take up to maxBatch messages, HIGH lane first by weight (see PriorityMailbox)
+            if (mailbox.drainTo(batch, maxBatch) == 0) {
+                // Step: Park until a publisher unparks us, re-checking the state flag every 100ms
+                // Why: Re-check emptiness after announcing the park so a concurrent offer is not missed
+                parked = true;
+                if (mailbox.isEmpty() && state != SubscriberState.TERMINATED) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+                continue;
+            }
+            if (state == SubscriberState.ACTIVE) {
+                try {
+                    // Step: Invoke user-provided handler
+                    // Why: try-catch prevents one bad batch from killing the consumer
+                    batchHandler.accept(batch);
+                } catch (Exception e) {
+                    System.err.println("Error handling batch: " + e.getMessage());
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        // Step: Signal consumer thread to stop
+        // Thread-safety: volatile write is immediately visible to consumer
+        state = SubscriberState.TERMINATED;
+        // Step: Wake the consumer in case it is parked
+        LockSupport.unpark(consumerThread);
+        try {
+            // Step: Wait for consumer thread to finish (with timeout)
+            // Why: Ensures cleanup completes before shutdown returns
+            consumerThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueSize() {
+        return mailbox.size();
+    }
+
+    public int getQueueSize(MessagePriority priority) {
+        return mailbox.size(priority);
+    }
+
+    public long getDroppedCount() {
+        return mailbox.getDroppedCount();
+    }
+
+    public long getDroppedCount(MessagePriority priority) {
+        return mailbox.getDroppedCount(priority);
+    }
+}
@@ -0,0 +1,150 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber without a thread of its own: a mailbox that is scheduled onto a shared Executor only while
+ * it has messages.
+ *
+ * Why: AsyncSubscriber parks one platform thread per subscriber in a 100 ms poll loop, so 10k subscribers
+ * cost 10k threads that keep waking up even with no traffic. Here an idle subscriber is just a queue and
+ * its lanes; with no messages, no task exists and the pool's workers are parked.
+ *
+ * Ordering: at most one run of a mailbox is submitted or executing at any time (the scheduled flag), and
+ * it takes messages in lane order, so each subscriber sees the messages of each priority in publish order
+ * even though successive runs may execute on different worker threads. That single consumer is what lets
+ * the lanes be MpscMailboxes: publishing never blocks or locks, and a run drains a whole batch at once.
+ *
+ * Priorities: the mailbox is a PriorityMailbox, so a run fills its batch HIGH lane first by weight and a
+ * flood of LOW messages delays a HIGH one by at most one batch rather than by the whole backlog.
+ *
+ * Handlers receive batches (Consumer<List<Message>>) of up to `throughput` messages. The list is reused by
+ * the next run, so copy it to keep messages beyond the call.
+ *
+ * The executor can be a work-stealing ForkJoinPool (asyncMode = true suits these short event tasks) or,
+ * on JDK 21+, Executors.newVirtualThreadPerTaskExecutor() for handlers that block.
+ */
+public class MailboxSubscriber implements Subscriber {
+    private static final int DEFAULT_THROUGHPUT = 64;
+
+    private final String id;
+    private final PriorityMailbox mailbox;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Consumer<List<Message>> batchHandler;
+    private final List<Message> batch;         // Only touched by the single running mailbox
+    private final Executor executor;
+    private final int throughput;
+    // Thread-safety: volatile so publishers and the running mailbox see shutdown immediately
+    private volatile SubscriberState state = SubscriberState.ACTIVE;
+
+    public MailboxSubscriber(String id, Consumer<Message> messageHandler, int capacity, Executor executor) {
+        this(id, Subscriber.eachMessage(messageHandler), capacity, executor, DEFAULT_THROUGHPUT);
+    }
+
+    /**
+     * @param capacity capacity of each priority lane
+     */
+    public MailboxSubscriber(String id, Consumer<List<Message>> batchHandler, int capacity, Executor executor, int throughput) {
+        this(id, batchHandler, new PriorityMailbox(capacity), executor, throughput);
+    }
+
+    /**
+     * @param batchHandler receives up to throughput messages per call, in the mailbox's drain order
+     * @param throughput   messages handled per run before the worker is handed back to other mailboxes
+     */
+    public MailboxSubscriber(String id, Consumer<List<Message>> batchHandler, PriorityMailbox mailbox, Executor executor,
+                             int throughput) {
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("throughput must be positive");
+        }
+        this.id = id;
+        this.mailbox = mailbox;
+        this.batchHandler = batchHandler;
+        this.batch = new ArrayList<>(throughput);
+        this.executor = executor;
+        this.throughput = throughput;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        if (state != SubscriberState.ACTIVE) {
+            return;
+        }
+
+        // Step: Lock-free append to the message's lane; a full lane counts a drop instead of making the
+        // publisher wait
+        // Why: publish latency must not depend on how fast this subscriber consumes
+        if (!mailbox.offer(message)) {
+            return;
+        }
+
+        // Step: Schedule the mailbox if it is not already scheduled or running
+        // Thread-safety: the CAS lets exactly one publisher submit the run
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                // Pool shut down: nothing will deliver these messages any more
+                scheduled.set(false);
+                shutdown();
+            }
+        }
+    }
+
+    private void run() {
+        // Step: Drain and handle one bounded batch, then yield the worker to other mailboxes
+        // Why: one busy subscriber must not monopolize a shared pool thread
+        if (mailbox.drainTo(batch, throughput) > 0 && state == SubscriberState.ACTIVE) {
+            try {
+                batchHandler.accept(batch);
+            } catch (Exception e) {
+                System.err.println("Error handling batch: " + e.getMessage());
+            }
+        }
+        batch.clear();
+
+        // Step: Release the flag, then re-check for messages offered meanwhile
+        // Why: a publisher that saw scheduled == true before we cleared it did not submit a run
+        scheduled.set(false);
+        if (!mailbox.isEmpty() && state == SubscriberState.ACTIVE) {
+            schedule();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        // Step: Stop accepting; queued messages are discarded with the mailbox
+        // Why: only the running mailbox may consume, so shutdown cannot drain it from this thread
+        state = SubscriberState.TERMINATED;
+    }
+
+    public int getQueueSize() {
+        return mailbox.size();
+    }
+
+    public int getQueueSize(MessagePriority priority) {
+        return mailbox.size(priority);
+    }
+
+    public long getDroppedCount() {
+        return mailbox.getDroppedCount();
+    }
+
+    public long getDroppedCount(MessagePriority priority) {
+        return mailbox.getDroppedCount(priority);
+    }
+}
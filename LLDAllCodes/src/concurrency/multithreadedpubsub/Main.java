@@ -1,463 +1,210 @@
 package concurrency.multithreadedpubsub;
 
-
-
-
-public enum MessagePriority {
-    LOW, NORMAL, HIGH
-}
-
-public enum SubscriberState {
-    ACTIVE,      // Actively consuming messages
-    PAUSED,      // Temporarily stopped
-    TERMINATED   // Permanently stopped, cleanup pending
-}
-
-
-
-
-
-
-
-
-public class Message {
-    private final String id;
-    private final String topic;
-    private final Object payload;
-    private final long timestamp;
-    private final MessagePriority priority;
-
-    public Message(String topic, Object payload) {
-        this(topic, payload, MessagePriority.NORMAL);
-    }
-
-    public Message(String topic, Object payload, MessagePriority priority) {
-        this.id = UUID.randomUUID().toString();
-        this.topic = topic;
-        this.payload = payload;
-        this.timestamp = System.currentTimeMillis();
-        this.priority = priority;
-    }
-
-    // Getters
-    public String getId() { return id; }
-    public String getTopic() { return topic; }
-    public Object getPayload() { return payload; }
-    public long getTimestamp() { return timestamp; }
-    public MessagePriority getPriority() { return priority; }
-
-    @Override
-    public String toString() {
-        return String.format("Message[id=%s, topic=%s, payload=%s]", id, topic, payload);
-    }
-}
-
-
-
-
-
-
-
-public interface Subscriber {
-    String getId();
-    void onMessage(Message message);
-    void shutdown();
-}
-
-public class AsyncSubscriber implements Subscriber {
-    private final String id;
-    private final BlockingQueue<Message> messageQueue;
-    private final Consumer<Message> messageHandler;
-    private final Thread consumerThread;
-    // Step: Use volatile for cross-thread visibility of state changes
-    // Thread-safety: volatile ensures TERMINATED is visible to consumer thread immediately
-    private volatile SubscriberState state;
-
-    public AsyncSubscriber(String id, Consumer<Message> messageHandler, int queueCapacity) {
-        this.id = id;
-        // Step: Create bounded queue for backpressure control
-        // Why: Prevents unbounded memory growth when consumer is slower than producer
-        this.messageQueue = new LinkedBlockingQueue<>(queueCapacity);
-        this.messageHandler = messageHandler;
-        this.state = SubscriberState.ACTIVE;
-
-        // Step: Start dedicated consumer thread with descriptive name
-        // Why: Thread isolation means slow handlers don't affect other subscribers
-        this.consumerThread = new Thread(this::consumeLoop, "subscriber-" + id);
-        this.consumerThread.setDaemon(true);  // Won't prevent JVM shutdown
-        this.consumerThread.start();
-    }
-
-    @Override
-    public String getId() {
-        return id;
-    }
-
-    @Override
-    public void onMessage(Message message) {
-        // Step: Early exit if not accepting messages
-        // Thread-safety: volatile read of state is atomic
-        if (state != SubscriberState.ACTIVE) {
-            return;
-        }
-
-        // Step: Non-blocking offer with timeout for backpressure
-        // Why: Publisher doesn't block forever; returns quickly even if queue is full
-        // Thread-safety: BlockingQueue.offer is thread-safe
-        boolean accepted = false;
-        try {
-            accepted = messageQueue.offer(message, 100, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the two subscriber modes of MessageBroker:
+ * - dedicated: one AsyncSubscriber thread per subscriber, parked while idle
+ * - dispatcher: MailboxSubscribers on a shared work-stealing pool
+ *
+ * For each mode it publishes a burst, checks that every subscriber saw its messages in publish order, then
+ * measures the CPU the JVM burns over two seconds with no traffic at all. The dispatcher mode runs once
+ * with per-message handlers and once with batch handlers.
+ *
+ * Finally it publishes to a topic whose only subscriber takes 1 ms per message: publish latency stays flat
+ * because a full mailbox drops (and counts) instead of making the publisher wait.
+ *
+ * Last, it floods a busy subscriber with LOW messages and sprinkles in HIGH alerts: the alerts go through
+ * their own lane and are handled within about one batch, while the LOW backlog waits (and overflows).
+ *
+ * Usage: java concurrency.multithreadedpubsub.Main [subscribers] [messagesPerTopic]
+ */
+public class Main {
+    private static final int TOPICS = 10;
+    private static final long IDLE_MILLIS = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int subscribers = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int messagesPerTopic = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        run("dedicated", new MessageBroker(messagesPerTopic), subscribers, messagesPerTopic, false);
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        run("dispatcher", new MessageBroker(messagesPerTopic, pool), subscribers, messagesPerTopic, false);
+        run("batched", new MessageBroker(messagesPerTopic, pool), subscribers, messagesPerTopic, true);
+
+        slowSubscriber("dedicated", new MessageBroker(100));
+        slowSubscriber("dispatcher", new MessageBroker(100, pool));
+
+        priorityLanes("dedicated", new MessageBroker(1_000));
+        priorityLanes("dispatcher", new MessageBroker(1_000, pool));
+        pool.shutdown();
+    }
+
+    private static void run(String mode, MessageBroker broker, int subscribers, int messagesPerTopic, boolean batched)
+            throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baselineThreads = threads.getThreadCount();
+        LongAdder delivered = new LongAdder();
+        LongAdder outOfOrder = new LongAdder();
+        ConcurrentHashMap<String, AtomicLong> lastSeen = new ConcurrentHashMap<>();
+
+        for (int t = 0; t < TOPICS; t++) {
+            broker.createTopic("topic-" + t);
         }
-
-        if (!accepted) {
-            // Backpressure policy: log and drop
-            System.err.println("Subscriber " + id + " queue full, dropping message: " + message.getId());
-        }
-    }
-
-    private void consumeLoop() {
-        // Step: Loop until explicitly terminated
-        // Thread-safety: volatile read sees writes from shutdown()
-        while (state != SubscriberState.TERMINATED) {
-            try {
-                // Step: Poll with timeout instead of blocking take()
-                // Why: Allows checking state flag every 100ms for graceful shutdown
-                Message message = messageQueue.poll(100, TimeUnit.MILLISECONDS);
-                if (message != null && state == SubscriberState.ACTIVE) {
-                    try {
-                        // Step: Invoke user-provided handler
-                        // Why: try-catch prevents one bad message from killing the consumer
-                        messageHandler.accept(message);
-                    } catch (Exception e) {
-                        System.err.println("Error handling message: " + e.getMessage());
+        for (int s = 0; s < subscribers; s++) {
+            String id = "sub-" + s;
+            AtomicLong last = new AtomicLong(-1);
+            lastSeen.put(id, last);
+            String topic = "topic-" + (s % TOPICS);
+            if (batched) {
+                broker.subscribeBatch(topic, id, batch -> {
+                    for (Message message : batch) {
+                        if ((Long) message.getPayload() != last.get() + 1) {
+                            outOfOrder.increment();
+                        }
+                        last.set((Long) message.getPayload());
                     }
-                }
-            } catch (InterruptedException e) {
-                // Step: Respect interruption for shutdown
-                Thread.currentThread().interrupt();
-                break;
+                    delivered.add(batch.size());
+                }, 64);
+            } else {
+                broker.subscribe(topic, id, message -> {
+                    long sequence = (Long) message.getPayload();
+                    if (sequence != last.get() + 1) {
+                        outOfOrder.increment();
+                    }
+                    last.set(sequence);
+                    delivered.increment();
+                });
             }
         }
-    }
 
-    @Override
-    public void shutdown() {
-        // Step: Signal consumer thread to stop
-        // Thread-safety: volatile write is immediately visible to consumer
-        state = SubscriberState.TERMINATED;
-        // Step: Interrupt in case consumer is blocked in poll()
-        consumerThread.interrupt();
-        try {
-            // Step: Wait for consumer thread to finish (with timeout)
-            // Why: Ensures cleanup completes before shutdown returns
-            consumerThread.join(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        for (long i = 0; i < messagesPerTopic; i++) {
+            for (int t = 0; t < TOPICS; t++) {
+                broker.publish("topic-" + t, i);
+            }
         }
-    }
-
-    public int getQueueSize() {
-        return messageQueue.size();
-    }
-}
-
-
-
-
-
-
-public class Topic {
-    private final String name;
-    // Step: Use CopyOnWriteArrayList for lock-free iteration during publish
-    // Why: Reads (publishes) are frequent; writes (subscribe/unsubscribe) are rare
-    // Thread-safety: COW creates snapshot on write; iteration never sees concurrent modification
-    private final CopyOnWriteArrayList<Subscriber> subscribers;
-    // Step: Use volatile for cross-thread visibility of active flag
-    // Thread-safety: Publishers see deactivation immediately without locking
-    private volatile boolean active;
-
-    public Topic(String name) {
-        this.name = name;
-        this.subscribers = new CopyOnWriteArrayList<>();
-        this.active = true;
-    }
+        long expected = (long) subscribers * messagesPerTopic;
+        while (delivered.sum() < expected && System.nanoTime() - start < 60_000_000_000L) {
+            Thread.sleep(10);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-10s %,d subscribers, %,d threads: delivered %,d/%,d in %.2f s, out of order %d%n",
+                mode, subscribers, threads.getThreadCount() - baselineThreads, delivered.sum(), expected, seconds,
+                outOfOrder.sum());
 
-    public String getName() {
-        return name;
-    }
+        long cpuBefore = processCpuNanos();
+        Thread.sleep(IDLE_MILLIS);
+        System.out.printf("%-10s idle for %d ms: %.0f ms CPU%n", mode, IDLE_MILLIS, (processCpuNanos() - cpuBefore) / 1e6);
 
-    public boolean isActive() {
-        return active;
+        broker.shutdown();
     }
 
-    public void addSubscriber(Subscriber subscriber) {
-        // Step: Check active flag before adding
-        // Why: Prevents adding subscribers to a topic being deleted
-        if (active) {
-            // Thread-safety: CopyOnWriteArrayList.add() is thread-safe
-            subscribers.add(subscriber);
+    private static void slowSubscriber(String mode, MessageBroker broker) throws InterruptedException {
+        broker.createTopic("slow");
+        LongAdder handled = new LongAdder();
+        Subscriber subscriber = broker.subscribeBatch("slow", "slow-sub", (List<Message> batch) -> {
+            for (int i = 0; i < batch.size(); i++) {
+                sleepQuietly(1);
+                handled.increment();
+            }
+        }, 16);
+
+        int messages = 2_000;
+        long maxNanos = 0;
+        long start = System.nanoTime();
+        for (long i = 0; i < messages; i++) {
+            long before = System.nanoTime();
+            broker.publish("slow", i);
+            maxNanos = Math.max(maxNanos, System.nanoTime() - before);
         }
-    }
-
-    public void removeSubscriber(Subscriber subscriber) {
-        // Thread-safety: CopyOnWriteArrayList.remove() is thread-safe
-        subscribers.remove(subscriber);
-    }
-
-    public void publish(Message message) {
-        // Step: Fail fast if topic is inactive
-        // Why: Clear error rather than silent message loss
-        if (!active) {
-            throw new IllegalStateException("Cannot publish to inactive topic: " + name);
+        double totalMillis = (System.nanoTime() - start) / 1e6;
+        long dropped = subscriber instanceof MailboxSubscriber
+                ? ((MailboxSubscriber) subscriber).getDroppedCount()
+                : ((AsyncSubscriber) subscriber).getDroppedCount();
+        System.out.printf("%-10s slow subscriber: %,d publishes in %.1f ms (max %.1f us), dropped %,d%n",
+                mode, messages, totalMillis, maxNanos / 1e3, dropped);
+        broker.shutdown();
+    }
+
+    private static void priorityLanes(String mode, MessageBroker broker) throws InterruptedException {
+        broker.createTopic("mixed");
+        long[] latencySum = new long[MessagePriority.values().length];
+        long[] latencyMax = new long[MessagePriority.values().length];
+        long[] handled = new long[MessagePriority.values().length];
+        LongAdder done = new LongAdder();
+        // Handler state is only touched by the subscriber's single consumer, so plain arrays are enough
+        Subscriber subscriber = broker.subscribeBatch("mixed", "busy-sub", (List<Message> batch) -> {
+            for (Message message : batch) {
+                busyWork(100_000);
+                int lane = message.getPriority().ordinal();
+                long latency = System.nanoTime() - (Long) message.getPayload();
+                latencySum[lane] += latency;
+                latencyMax[lane] = Math.max(latencyMax[lane], latency);
+                handled[lane]++;
+            }
+            done.add(batch.size());
+        }, 16);
+
+        int lowMessages = 20_000;
+        int alertEvery = 200;
+        for (int i = 1; i <= lowMessages; i++) {
+            broker.publish("mixed", System.nanoTime(), MessagePriority.LOW);
+            if (i % alertEvery == 0) {
+                broker.publish("mixed", System.nanoTime(), MessagePriority.HIGH);
+            }
         }
-
-        // Step: Iterate subscriber list and deliver to each
-        // Thread-safety: CopyOnWriteArrayList returns a snapshot array reference
-        // Even if subscribers.add/remove happens during this loop, we iterate a consistent snapshot
-        for (Subscriber subscriber : subscribers) {
-            // Step: Non-blocking enqueue to subscriber's queue
-            // Thread-safety: onMessage only enqueues; actual processing is async
-            subscriber.onMessage(message);
+        int queued = subscriber instanceof MailboxSubscriber
+                ? ((MailboxSubscriber) subscriber).getQueueSize()
+                : ((AsyncSubscriber) subscriber).getQueueSize();
+        long published = lowMessages + lowMessages / alertEvery;
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (done.sum() + dropped(subscriber, null) < published && System.nanoTime() < deadline) {
+            Thread.sleep(10);
         }
-    }
-
-    public int getSubscriberCount() {
-        return subscribers.size();
-    }
-
-    public void deactivate() {
-        // Step: Mark inactive first to stop new publishes
-        // Thread-safety: volatile write is immediately visible
-        active = false;
-        // Step: Shutdown all subscriber consumer threads
-        // Why: Prevents resource leaks (threads, memory)
-        for (Subscriber subscriber : subscribers) {
-            subscriber.shutdown();
+        System.out.printf("%-10s priority lanes: %,d queued after publishing, %,d handled%n", mode, queued, done.sum());
+        for (MessagePriority priority : new MessagePriority[]{MessagePriority.HIGH, MessagePriority.LOW}) {
+            int lane = priority.ordinal();
+            System.out.printf("%-10s   %-4s handled %,6d, dropped %,6d, latency avg %7.2f ms, max %7.2f ms%n",
+                    mode, priority, handled[lane], dropped(subscriber, priority),
+                    handled[lane] == 0 ? 0 : latencySum[lane] / 1e6 / handled[lane], latencyMax[lane] / 1e6);
         }
-        // Step: Clear references for garbage collection
-        subscribers.clear();
+        broker.shutdown();
     }
-}
-
-
-
-
-
 
-
-
-public class MessageBroker {
-    // Step: Use ConcurrentHashMap for thread-safe topic registry
-    // Thread-safety: Provides atomic get-or-create operations, avoiding TOCTOU races
-    private final ConcurrentHashMap<String, Topic> topics;
-    private final int defaultQueueCapacity;
-
-    public MessageBroker() {
-        this(1000);
-    }
-
-    public MessageBroker(int defaultQueueCapacity) {
-        this.topics = new ConcurrentHashMap<>();
-        this.defaultQueueCapacity = defaultQueueCapacity;
-    }
-
-    public Topic createTopic(String topicName) {
-        // Step: Atomic get-or-create to prevent duplicate Topic objects
-        // Thread-safety: computeIfAbsent is atomic - only one Topic created per name
-        // Why: Avoids the check-then-act race condition
-        return topics.computeIfAbsent(topicName, Topic::new);
-    }
-
-    public void deleteTopic(String topicName) {
-        // Step: Atomically remove from registry
-        // Thread-safety: remove() returns the removed value atomically
-        Topic topic = topics.remove(topicName);
-        if (topic != null) {
-            // Step: Clean up subscriber threads and resources
-            // Why: Prevents resource leaks after topic deletion
-            topic.deactivate();
+    private static long dropped(Subscriber subscriber, MessagePriority priority) {
+        if (subscriber instanceof MailboxSubscriber) {
+            MailboxSubscriber mailbox = (MailboxSubscriber) subscriber;
+            return priority == null ? mailbox.getDroppedCount() : mailbox.getDroppedCount(priority);
         }
+        AsyncSubscriber async = (AsyncSubscriber) subscriber;
+        return priority == null ? async.getDroppedCount() : async.getDroppedCount(priority);
     }
 
-    public Subscriber subscribe(String topicName, String subscriberId, Consumer<Message> handler) {
-        // Step: Look up topic (lock-free read)
-        // Thread-safety: ConcurrentHashMap.get() is thread-safe
-        Topic topic = topics.get(topicName);
-        if (topic == null || !topic.isActive()) {
-            throw new IllegalArgumentException("Topic does not exist or is inactive: " + topicName);
+    private static void busyWork(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
         }
-
-        // Step: Create subscriber with bounded queue for backpressure
-        // Why: Each subscriber gets isolated queue and consumer thread
-        AsyncSubscriber subscriber = new AsyncSubscriber(subscriberId, handler, defaultQueueCapacity);
-        // Thread-safety: Topic.addSubscriber uses CopyOnWriteArrayList
-        topic.addSubscriber(subscriber);
-        return subscriber;
     }
 
-    public void unsubscribe(String topicName, Subscriber subscriber) {
-        Topic topic = topics.get(topicName);
-        if (topic != null) {
-            // Step: Remove from topic's subscriber list
-            topic.removeSubscriber(subscriber);
-            // Step: Stop subscriber's consumer thread
-            // Why: Prevents resource leak from orphaned threads
-            subscriber.shutdown();
-        }
-    }
-
-    public void publish(String topicName, Object payload) {
-        publish(topicName, payload, MessagePriority.NORMAL);
-    }
-
-    public void publish(String topicName, Object payload, MessagePriority priority) {
-        // Step: Look up topic (lock-free read)
-        // Thread-safety: get() is thread-safe; topic reference is safe to hold
-        Topic topic = topics.get(topicName);
-        if (topic == null) {
-            throw new IllegalArgumentException("Topic does not exist: " + topicName);
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-
-        // Step: Create immutable message and publish
-        // Thread-safety: Message is immutable, safe to share across threads
-        Message message = new Message(topicName, payload, priority);
-        // Thread-safety: Topic.publish uses CopyOnWriteArrayList for lock-free iteration
-        topic.publish(message);
-    }
-
-    public Set<String> getTopicNames() {
-        // Thread-safety: keySet() returns a live view, thread-safe to iterate
-        return topics.keySet();
     }
 
-    public int getSubscriberCount(String topicName) {
-        Topic topic = topics.get(topicName);
-        return topic != null ? topic.getSubscriberCount() : 0;
-    }
-
-    public void shutdown() {
-        // Step: Iterate all topics and deactivate each
-        // Why: Graceful shutdown stops all consumer threads
-        for (Topic topic : topics.values()) {
-            topic.deactivate();
-        }
-        // Step: Clear registry for garbage collection
-        topics.clear();
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,35 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.UUID;
+
+public class Message {
+    private final String id;
+    private final String topic;
+    private final Object payload;
+    private final long timestamp;
+    private final MessagePriority priority;
+
+    public Message(String topic, Object payload) {
+        this(topic, payload, MessagePriority.NORMAL);
+    }
+
+    public Message(String topic, Object payload, MessagePriority priority) {
+        this.id = UUID.randomUUID().toString();
+        this.topic = topic;
+        this.payload = payload;
+        this.timestamp = System.currentTimeMillis();
+        this.priority = priority;
+    }
+
+    // Getters
+    public String getId() { return id; }
+    public String getTopic() { return topic; }
+    public Object getPayload() { return payload; }
+    public long getTimestamp() { return timestamp; }
+    public MessagePriority getPriority() { return priority; }
+
+    @Override
+    public String toString() {
+        return String.format("Message[id=%s, topic=%s, payload=%s]", id, topic, payload);
+    }
+}
@@ -0,0 +1,139 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+public class MessageBroker {
+    private static final int DEFAULT_MAX_BATCH = 64;
+
+    // Step: Use ConcurrentHashMap for thread-safe topic registry
+    // Thread-safety: Provides atomic get-or-create operations, avoiding TOCTOU races
+    private final ConcurrentHashMap<String, Topic> topics;
+    private final int defaultQueueCapacity;
+    // Null: one AsyncSubscriber thread per subscriber; otherwise MailboxSubscribers run on this executor
+    private final Executor dispatchExecutor;
+
+    public MessageBroker() {
+        this(1000);
+    }
+
+    public MessageBroker(int defaultQueueCapacity) {
+        this(defaultQueueCapacity, null);
+    }
+
+    /**
+     * Dispatcher mode: subscribers are mailboxes scheduled onto the given executor only while they have
+     * messages (see MailboxSubscriber). The caller owns the executor and shuts it down.
+     */
+    public MessageBroker(int defaultQueueCapacity, Executor dispatchExecutor) {
+        this.topics = new ConcurrentHashMap<>();
+        this.defaultQueueCapacity = defaultQueueCapacity;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    public Topic createTopic(String topicName) {
+        // Step: Atomic get-or-create to prevent duplicate Topic objects
+        // Thread-safety: computeIfAbsent is atomic - only one Topic created per name
+        // Why: Avoids the check-then-act race condition
+        return topics.computeIfAbsent(topicName, Topic::new);
+    }
+
+    public void deleteTopic(String topicName) {
+        // Step: Atomically remove from registry
+        // Thread-safety: remove() returns the removed value atomically
+        Topic topic = topics.remove(topicName);
+        if (topic != null) {
+            // Step: Clean up subscriber threads and resources
+            // Why: Prevents resource leaks after topic deletion
+            topic.deactivate();
+        }
+    }
+
+    public Subscriber subscribe(String topicName, String subscriberId, Consumer<Message> handler) {
+        return subscribeBatch(topicName, subscriberId, Subscriber.eachMessage(handler), DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * Subscribes a handler that receives queued messages in batches of up to maxBatch, HIGH priority first
+     * and in publish order within each priority. Each priority lane holds defaultQueueCapacity messages.
+     * The list passed to the handler is reused afterwards, so copy it to keep messages.
+     */
+    public Subscriber subscribeBatch(String topicName, String subscriberId, Consumer<List<Message>> handler, int maxBatch) {
+        return subscribeBatch(topicName, subscriberId, handler, maxBatch, new PriorityMailbox(defaultQueueCapacity));
+    }
+
+    /**
+     * As above, with the subscriber's own lane capacities, drain weights and starvation bound.
+     */
+    public Subscriber subscribeBatch(String topicName, String subscriberId, Consumer<List<Message>> handler, int maxBatch,
+                                     PriorityMailbox mailbox) {
+        // Step: Look up topic (lock-free read)
+        // Thread-safety: ConcurrentHashMap.get() is thread-safe
+        Topic topic = topics.get(topicName);
+        if (topic == null || !topic.isActive()) {
+            throw new IllegalArgumentException("Topic does not exist or is inactive: " + topicName);
+        }
+
+        // Step: Create subscriber with bounded queue for backpressure
+        // Why: Each subscriber gets an isolated queue; a consumer thread of its own unless dispatching on a pool
+        Subscriber subscriber = dispatchExecutor == null
+                ? new AsyncSubscriber(subscriberId, handler, mailbox, maxBatch)
+                : new MailboxSubscriber(subscriberId, handler, mailbox, dispatchExecutor, maxBatch);
+        // Thread-safety: Topic.addSubscriber uses CopyOnWriteArrayList
+        topic.addSubscriber(subscriber);
+        return subscriber;
+    }
+
+    public void unsubscribe(String topicName, Subscriber subscriber) {
+        Topic topic = topics.get(topicName);
+        if (topic != null) {
+            // Step: Remove from topic's subscriber list
+            topic.removeSubscriber(subscriber);
+            // Step: Stop subscriber's consumer thread
+            // Why: Prevents resource leak from orphaned threads
+            subscriber.shutdown();
+        }
+    }
+
+    public void publish(String topicName, Object payload) {
+        publish(topicName, payload, MessagePriority.NORMAL);
+    }
+
+    public void publish(String topicName, Object payload, MessagePriority priority) {
+        // Step: Look up topic (lock-free read)
+        // Thread-safety: get() is thread-safe; topic reference is safe to hold
+        Topic topic = topics.get(topicName);
+        if (topic == null) {
+            throw new IllegalArgumentException("Topic does not exist: " + topicName);
+        }
+
+        // Step: Create immutable message and publish
+        // Thread-safety: Message is immutable, safe to share across threads
+        Message message = new Message(topicName, payload, priority);
+        // Thread-safety: Topic.publish uses CopyOnWriteArrayList for lock-free iteration
+        topic.publish(message);
+    }
+
+    public Set<String> getTopicNames() {
+        // Thread-safety: keySet() returns a live view, thread-safe to iterate
+        return topics.keySet();
+    }
+
+    public int getSubscriberCount(String topicName) {
+        Topic topic = topics.get(topicName);
+        return topic != null ? topic.getSubscriberCount() : 0;
+    }
+
+    public void shutdown() {
+        // Step: Iterate all topics and deactivate each
+        // Why: Graceful shutdown stops all consumer threads
+        for (Topic topic : topics.values()) {
+            topic.deactivate();
+        }
+        // Step: Clear registry for garbage collection
+        topics.clear();
+    }
+}
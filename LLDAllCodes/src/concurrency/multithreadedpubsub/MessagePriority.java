@@ -0,0 +1,5 @@
+package concurrency.multithreadedpubsub;
+
+public enum MessagePriority {
+    LOW, NORMAL, HIGH
+}
@@ -0,0 +1,103 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded multi-producer, single-consumer queue: a linked list where producers append by swapping the
+ * tail and the one consumer walks from the head.
+ *
+ * Why: publishers only ever add and exactly one mailbox run consumes at a time, so the consumer needs no
+ * atomic operations per message and producers need no lock. An offer costs one getAndIncrement (the
+ * bound) and one getAndSet (the tail); a drain hands over up to max messages and settles the bound with a
+ * single addAndGet for the whole batch.
+ *
+ * Thread-safety: offer() may be called from any thread. drainTo() and isEmpty() must only be called by the
+ * current consumer; handing the consumer role between threads must happen-before (e.g. via an executor
+ * submission or a volatile flag, as MailboxSubscriber does).
+ */
+public class MpscMailbox<E> {
+    private static final class Node<E> {
+        E value;
+        volatile Node<E> next;
+
+        Node(E value) {
+            this.value = value;
+        }
+    }
+
+    private final AtomicReference<Node<E>> tail;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private Node<E> head;                       // Consumer-owned; its value is always null (a stub)
+
+    public MpscMailbox(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.head = new Node<>(null);
+        this.tail = new AtomicReference<>(head);
+    }
+
+    /**
+     * Appends the element, or returns false at once if the mailbox is full. Never blocks.
+     */
+    public boolean offer(E element) {
+        // Step: Reserve room first; undo if over capacity
+        if (size.getAndIncrement() >= capacity) {
+            size.getAndDecrement();
+            return false;
+        }
+        Node<E> node = new Node<>(element);
+        // Step: Swap in the new tail, then link the old one to it
+        // Why: between the two steps the consumer sees the old tail as the end; it picks the node up next time
+        Node<E> previous = tail.getAndSet(node);
+        previous.next = node;
+        return true;
+    }
+
+    /**
+     * Moves up to max elements, oldest first, into sink. Consumer only.
+     */
+    public int drainTo(Collection<? super E> sink, int max) {
+        Node<E> current = head;
+        int count = 0;
+        while (count < max) {
+            Node<E> next = current.next;
+            if (next == null) {
+                break;
+            }
+            sink.add(next.value);
+            next.value = null;                  // next becomes the new stub; don't retain the message
+            current = next;
+            count++;
+        }
+        head = current;
+        if (count > 0) {
+            size.addAndGet(-count);
+        }
+        return count;
+    }
+
+    /**
+     * The oldest element without removing it, or null if none is linked yet. Consumer only.
+     */
+    public E peek() {
+        Node<E> next = head.next;
+        return next == null ? null : next.value;
+    }
+
+    /**
+     * True if nothing has been offered beyond what was drained, including an offer still linking its node.
+     * Consumer only.
+     */
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,136 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Subscriber mailbox with one lane per MessagePriority, so HIGH messages do not queue behind LOW ones.
+ *
+ * - Each lane is its own bounded MpscMailbox with its own capacity, so bulk LOW traffic can fill its
+ *   lane and be dropped there without costing HIGH messages their room. Drops are counted per lane.
+ * - drainTo() takes messages by weighted round robin, HIGH first: by default up to 8 HIGH, 3 NORMAL and
+ *   1 LOW per round, until the batch is full. A saturated lane therefore still gets its share.
+ * - Starvation protection: a lane whose oldest message has waited maxDelayMillis or longer is drained
+ *   first, with the largest weight, before the normal rounds.
+ *
+ * Order is kept within a lane, not across lanes. Thread-safety is that of MpscMailbox: offer() from any
+ * thread; drainTo() and isEmpty() from the single consumer only.
+ */
+public class PriorityMailbox {
+    private static final int LANES = MessagePriority.values().length;
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 1_000;
+
+    private final MpscMailbox<Message>[] lanes;
+    private final LongAdder[] dropped = new LongAdder[LANES];
+    private final int[] weights = new int[LANES];
+    private final int maxWeight;
+    private final long maxDelayMillis;
+
+    /**
+     * Same capacity for every lane, 8:3:1 weights and a 1 s starvation bound.
+     */
+    public PriorityMailbox(int capacityPerLane) {
+        this(capacityPerLane, capacityPerLane, capacityPerLane, 8, 3, 1, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public PriorityMailbox(int highCapacity, int normalCapacity, int lowCapacity,
+                           int highWeight, int normalWeight, int lowWeight, long maxDelayMillis) {
+        if (highWeight <= 0 || normalWeight <= 0 || lowWeight <= 0) {
+            throw new IllegalArgumentException("weights must be positive");
+        }
+        if (maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("maxDelayMillis must be positive");
+        }
+        this.lanes = (MpscMailbox<Message>[]) new MpscMailbox<?>[LANES];
+        lanes[MessagePriority.HIGH.ordinal()] = new MpscMailbox<>(highCapacity);
+        lanes[MessagePriority.NORMAL.ordinal()] = new MpscMailbox<>(normalCapacity);
+        lanes[MessagePriority.LOW.ordinal()] = new MpscMailbox<>(lowCapacity);
+        weights[MessagePriority.HIGH.ordinal()] = highWeight;
+        weights[MessagePriority.NORMAL.ordinal()] = normalWeight;
+        weights[MessagePriority.LOW.ordinal()] = lowWeight;
+        for (int i = 0; i < LANES; i++) {
+            dropped[i] = new LongAdder();
+        }
+        this.maxWeight = Math.max(highWeight, Math.max(normalWeight, lowWeight));
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Appends to the message's lane, or counts a drop and returns false if that lane is full. Never blocks.
+     */
+    public boolean offer(Message message) {
+        int lane = message.getPriority().ordinal();
+        if (lanes[lane].offer(message)) {
+            return true;
+        }
+        dropped[lane].increment();
+        return false;
+    }
+
+    /**
+     * Moves up to max messages into sink, overdue lanes first, then by weighted round robin. Consumer only.
+     */
+    public int drainTo(List<Message> sink, int max) {
+        int count = 0;
+
+        // Step: Serve lanes whose oldest message is overdue, up to the largest weight each, HIGH first
+        // Why: weights bound each lane's share, but a lane can still wait long if batches are small
+        long now = System.currentTimeMillis();
+        for (int lane = LANES - 1; lane >= 0 && count < max; lane--) {
+            Message oldest = lanes[lane].peek();
+            if (oldest != null && now - oldest.getTimestamp() >= maxDelayMillis) {
+                count += lanes[lane].drainTo(sink, Math.min(maxWeight, max - count));
+            }
+        }
+
+        // Step: Weighted rounds, HIGH first, until the batch is full or every lane is empty
+        while (count < max) {
+            int taken = 0;
+            for (int lane = LANES - 1; lane >= 0 && count + taken < max; lane--) {
+                taken += lanes[lane].drainTo(sink, Math.min(weights[lane], max - count - taken));
+            }
+            if (taken == 0) {
+                break;
+            }
+            count += taken;
+        }
+        return count;
+    }
+
+    /**
+     * Consumer only; see MpscMailbox.isEmpty().
+     */
+    public boolean isEmpty() {
+        for (MpscMailbox<Message> lane : lanes) {
+            if (!lane.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        int size = 0;
+        for (MpscMailbox<Message> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    public int size(MessagePriority priority) {
+        return lanes[priority.ordinal()].size();
+    }
+
+    public long getDroppedCount() {
+        long total = 0;
+        for (LongAdder lane : dropped) {
+            total += lane.sum();
+        }
+        return total;
+    }
+
+    public long getDroppedCount(MessagePriority priority) {
+        return dropped[priority.ordinal()].sum();
+    }
+}
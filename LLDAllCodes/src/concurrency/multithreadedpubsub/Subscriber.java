@@ -0,0 +1,26 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface Subscriber {
+    String getId();
+    void onMessage(Message message);
+    void shutdown();
+
+    /**
+     * Adapts a per-message handler to the batch handlers subscribers call. A failing message is reported
+     * and skipped without losing the rest of its batch.
+     */
+    static Consumer<List<Message>> eachMessage(Consumer<Message> messageHandler) {
+        return batch -> {
+            for (Message message : batch) {
+                try {
+                    messageHandler.accept(message);
+                } catch (Exception e) {
+                    System.err.println("Error handling message: " + e.getMessage());
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package concurrency.multithreadedpubsub;
+
+public enum SubscriberState {
+    ACTIVE,      // Actively consuming messages
+    PAUSED,      // Temporarily stopped
+    TERMINATED   // Permanently stopped, cleanup pending
+}
@@ -0,0 +1,76 @@
+package concurrency.multithreadedpubsub;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class Topic {
+    private final String name;
+    // Step: Use CopyOnWriteArrayList for lock-free iteration during publish
+    // Why: Reads (publishes) are frequent; writes (subscribe/unsubscribe) are rare
+    // Thread-safety: COW creates snapshot on write; iteration never sees concurrent modification
+    private final CopyOnWriteArrayList<Subscriber> subscribers;
+    // Step: Use volatile for cross-thread visibility of active flag
+    // Thread-safety: Publishers see deactivation immediately without locking
+    private volatile boolean active;
+
+    public Topic(String name) {
+        this.name = name;
+        this.subscribers = new CopyOnWriteArrayList<>();
+        this.active = true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void addSubscriber(Subscriber subscriber) {
+        // Step: Check active flag before adding
+        // Why: Prevents adding subscribers to a topic being deleted
+        if (active) {
+            // Thread-safety: CopyOnWriteArrayList.add() is thread-safe
+            subscribers.add(subscriber);
+        }
+    }
+
+    public void removeSubscriber(Subscriber subscriber) {
+        // Thread-safety: CopyOnWriteArrayList.remove() is thread-safe
+        subscribers.remove(subscriber);
+    }
+
+    public void publish(Message message) {
+        // Step: Fail fast if topic is inactive
+        // Why: Clear error rather than silent message loss
+        if (!active) {
+            throw new IllegalStateException("Cannot publish to inactive topic: " + name);
+        }
+
+        // Step: Iterate subscriber list and deliver to each
+        // Thread-safety: CopyOnWriteArrayList returns a snapshot array reference
+        // Even if subscribers.add/remove happens during this loop, we iterate a consistent snapshot
+        for (Subscriber subscriber : subscribers) {
+            // Step: Non-blocking enqueue to subscriber's queue
+            // Thread-safety: onMessage only enqueues; actual processing is async
+            subscriber.onMessage(message);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public void deactivate() {
+        // Step: Mark inactive first to stop new publishes
+        // Thread-safety: volatile write is immediately visible
+        active = false;
+        // Step: Shutdown all subscriber consumer threads
+        // Why: Prevents resource leaks (threads, memory)
+        for (Subscriber subscriber : subscribers) {
+            subscriber.shutdown();
+        }
+        // Step: Clear references for garbage collection
+        subscribers.clear();
+    }
+}
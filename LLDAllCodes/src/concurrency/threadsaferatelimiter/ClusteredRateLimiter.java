@@ -0,0 +1,242 @@
+package concurrency.threadsaferatelimiter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-side rate limiter for a cluster of service instances that share one limit per key.
+ *
+ * Why: a RateLimiter per instance enforces the limit independently, so with N instances a client gets
+ * N times its quota. Asking a central store on every request fixes that but adds a network round trip
+ * to each request.
+ *
+ * Model: the node leases batches of tokens per key from a LeaseCoordinator and spends them locally with
+ * one CAS, like a local bucket. When half of the last batch is spent, a background thread asks for more,
+ * so a busy key normally never runs dry while waiting. A lease is valid for leaseTtl; tokens still held
+ * when it expires are given up, so an idle node cannot hoard tokens and burst later.
+ *
+ * Accuracy: the coordinator charges tokens when it grants them, so the cluster never admits more than the
+ * global limit; it may admit slightly less while tokens sit in other nodes' leases (up to about 1.5 times
+ * the coordinator's tolerance, see InProcessLeaseCoordinator). Returned tokens only come back to the
+ * global bucket as far as it has not refilled them yet; after a full lease TTL they usually have been,
+ * and are then simply dropped.
+ *
+ * Latency: only the first request for a key, or the first one after its lease expired, waits for the
+ * coordinator. If the coordinator is unreachable, the node spends what it holds and then rejects
+ * (fails closed), retrying in the background.
+ */
+public class ClusteredRateLimiter {
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final String nodeId;
+    private final LeaseCoordinator coordinator;
+    private final long leaseBatch;
+    private final long leaseTtlNanos;
+    private final long retryBackoffNanos;
+    private final ScheduledExecutorService renewalExecutor;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final LongAdder renewalFailures = new LongAdder();
+
+    private static final class Lease {
+        final AtomicLong tokens = new AtomicLong();
+        final AtomicBoolean renewing = new AtomicBoolean();
+        volatile long lastGrant;
+        volatile long expiresAtNanos;
+        volatile long retryAtNanos;
+
+        Lease(long now) {
+            this.expiresAtNanos = now;          // Expired: the first request fetches a batch
+            this.retryAtNanos = now;
+        }
+    }
+
+    /**
+     * @param nodeId     identifies this instance to the coordinator
+     * @param leaseBatch tokens to hold per key; the coordinator may grant fewer
+     * @param leaseTtl   how long leased tokens stay valid on this node
+     */
+    public ClusteredRateLimiter(String nodeId, LeaseCoordinator coordinator, long leaseBatch, Duration leaseTtl) {
+        if (leaseBatch <= 0) {
+            throw new IllegalArgumentException("leaseBatch must be positive");
+        }
+        this.nodeId = nodeId;
+        this.coordinator = coordinator;
+        this.leaseBatch = leaseBatch;
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.retryBackoffNanos = Math.max(1, leaseTtlNanos / 20);
+        this.renewalExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lease-renewal-" + nodeId);
+            t.setDaemon(true);
+            return t;
+        });
+        // Return the tokens of leases that expired without being used again, and forget those keys
+        renewalExecutor.scheduleAtFixedRate(this::releaseExpiredLeases,
+            leaseTtl.toMillis(), leaseTtl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean tryAcquire(String clientId) {
+        return tryAcquire(clientId, 1);
+    }
+
+    public boolean tryAcquire(String clientId, int permits) {
+        if (!running.get()) {
+            throw new IllegalStateException("RateLimiter is shut down");
+        }
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        long now = System.nanoTime();
+        Lease lease = lease(clientId, now);
+
+        while (true) {
+            long available = lease.tokens.get();
+            if (available < permits) {
+                renewAsync(clientId, lease, now);
+                return false;
+            }
+            // Step 1: spend locally; this CAS is the only shared write on the request path
+            if (lease.tokens.compareAndSet(available, available - permits)) {
+                // Step 2: top up in the background before the lease runs dry
+                if ((available - permits) * 2 <= lease.lastGrant) {
+                    renewAsync(clientId, lease, now);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Tokens this node currently holds for the key, for monitoring.
+     */
+    public long getLeasedTokens(String clientId) {
+        Lease lease = leases.get(clientId);
+        return lease == null ? 0 : lease.tokens.get();
+    }
+
+    public long getRenewalFailureCount() {
+        return renewalFailures.sum();
+    }
+
+    private Lease lease(String clientId, long now) {
+        Lease lease = leases.get(clientId);
+        if (lease == null) {
+            lease = leases.computeIfAbsent(clientId, k -> new Lease(now));
+        }
+        if (now - lease.expiresAtNanos >= 0) {
+            renewExpired(clientId, lease);
+        }
+        return lease;
+    }
+
+    /**
+     * Slow path for a new key or an expired lease: return what is left and fetch a batch synchronously.
+     * Concurrent callers of the same key wait for that one fetch instead of each calling the coordinator.
+     */
+    private void renewExpired(String clientId, Lease lease) {
+        synchronized (lease) {
+            long now = System.nanoTime();
+            if (now - lease.expiresAtNanos < 0) {
+                return;                         // Renewed while we waited for the lock
+            }
+            try {
+                long stale = lease.tokens.getAndSet(0);
+                if (stale > 0) {
+                    coordinator.releaseLease(nodeId, clientId, stale);
+                }
+                renew(clientId, lease, now);
+            } catch (RuntimeException e) {
+                // Why: without a new expiry every request would retry the unreachable coordinator inline
+                renewalFailures.increment();
+                lease.expiresAtNanos = now + retryBackoffNanos;
+            }
+        }
+    }
+
+    private void renewAsync(String clientId, Lease lease, long now) {
+        if (now - lease.retryAtNanos < 0 || !lease.renewing.compareAndSet(false, true)) {
+            return;                             // Backing off, or a renewal is already in flight
+        }
+        try {
+            renewalExecutor.execute(() -> {
+                try {
+                    synchronized (lease) {
+                        renew(clientId, lease, System.nanoTime());
+                    }
+                } catch (RuntimeException e) {
+                    renewalFailures.increment();
+                    lease.retryAtNanos = System.nanoTime() + retryBackoffNanos;
+                } finally {
+                    lease.renewing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lease.renewing.set(false);          // Shutting down
+        }
+    }
+
+    // Caller holds the lease's lock
+    private void renew(String clientId, Lease lease, long now) {
+        long wanted = leaseBatch - lease.tokens.get();
+        if (wanted <= 0) {
+            return;
+        }
+        long granted = coordinator.acquireLease(nodeId, clientId, wanted);
+        lease.tokens.addAndGet(granted);
+        lease.lastGrant = granted;
+        lease.expiresAtNanos = now + leaseTtlNanos;
+        if (granted == 0) {
+            // The key is exhausted cluster-wide; don't ask again on every rejected request
+            lease.retryAtNanos = now + retryBackoffNanos;
+        }
+    }
+
+    private void releaseExpiredLeases() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, Lease> entry : leases.entrySet()) {
+            Lease lease = entry.getValue();
+            if (now - lease.expiresAtNanos >= 0 && leases.remove(entry.getKey(), lease)) {
+                // A request still holding this lease may fetch into it once more; those tokens are only
+                // stranded until they refill at the coordinator. The coordinator credits what is returned
+                // here only as far as its grant has not been refilled yet.
+                releaseQuietly(entry.getKey(), lease.tokens.getAndSet(0));
+            }
+        }
+    }
+
+    private void releaseQuietly(String clientId, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        try {
+            coordinator.releaseLease(nodeId, clientId, tokens);
+        } catch (RuntimeException e) {
+            renewalFailures.increment();
+        }
+    }
+
+    /**
+     * Stops renewals and returns all unused tokens to the coordinator.
+     */
+    public void shutdown() {
+        if (running.compareAndSet(true, false)) {
+            renewalExecutor.shutdown();
+            try {
+                if (!renewalExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    renewalExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                renewalExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            leases.forEach((clientId, lease) -> releaseQuietly(clientId, lease.tokens.getAndSet(0)));
+            leases.clear();
+        }
+    }
+}
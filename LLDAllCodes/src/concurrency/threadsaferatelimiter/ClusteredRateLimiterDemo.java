@@ -0,0 +1,75 @@
+package concurrency.threadsaferatelimiter;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs several ClusteredRateLimiter "nodes" in one JVM against a coordinator served over a loopback
+ * socket, all hammering the same key, and compares the cluster-wide admissions with the global limit
+ * (capacity + rate * elapsed). Without the coordinator each node would admit that much on its own.
+ *
+ * Usage: java concurrency.threadsaferatelimiter.ClusteredRateLimiterDemo [nodes] [runMillis]
+ */
+public class ClusteredRateLimiterDemo {
+    private static final long CAPACITY = 500;
+    private static final double TOKENS_PER_SECOND = 1_000;
+    private static final double TOLERANCE = 0.1;
+    private static final int THREADS_PER_NODE = 4;
+
+    public static void main(String[] args) throws Exception {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        long runMillis = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+
+        InProcessLeaseCoordinator coordinator = new InProcessLeaseCoordinator(
+            new RateLimitConfig(TOKENS_PER_SECOND, CAPACITY), TOLERANCE, Duration.ofSeconds(5));
+        try (LeaseCoordinatorServer server = new LeaseCoordinatorServer(coordinator, 0)) {
+            ClusteredRateLimiter[] limiters = new ClusteredRateLimiter[nodes];
+            RemoteLeaseCoordinator[] clients = new RemoteLeaseCoordinator[nodes];
+            for (int i = 0; i < nodes; i++) {
+                clients[i] = new RemoteLeaseCoordinator("localhost", server.getPort(), Duration.ofSeconds(1));
+                limiters[i] = new ClusteredRateLimiter("node-" + i, clients[i], 64, Duration.ofSeconds(1));
+            }
+
+            LongAdder allowed = new LongAdder();
+            LongAdder requests = new LongAdder();
+            LongAdder requestNanos = new LongAdder();
+            CountDownLatch done = new CountDownLatch(nodes * THREADS_PER_NODE);
+            long start = System.nanoTime();
+            long end = start + runMillis * 1_000_000;
+            for (ClusteredRateLimiter limiter : limiters) {
+                for (int t = 0; t < THREADS_PER_NODE; t++) {
+                    Thread worker = new Thread(() -> {
+                        long now;
+                        while ((now = System.nanoTime()) < end) {
+                            if (limiter.tryAcquire("api-key-1")) {
+                                allowed.increment();
+                            }
+                            requestNanos.add(System.nanoTime() - now);
+                            requests.increment();
+                        }
+                        done.countDown();
+                    });
+                    worker.start();
+                }
+            }
+            done.await();
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            long limit = CAPACITY + (long) (TOKENS_PER_SECOND * elapsedSeconds);
+            System.out.printf("%d nodes, %.2f s: %,d requests, %,d allowed, global limit %,d (%.3f)%n",
+                nodes, elapsedSeconds, requests.sum(), allowed.sum(), limit, allowed.sum() / (double) limit);
+            System.out.printf("Mean tryAcquire latency: %.0f ns, renewal failures: %d%n",
+                requestNanos.sum() / (double) requests.sum(),
+                Arrays.stream(limiters).mapToLong(ClusteredRateLimiter::getRenewalFailureCount).sum());
+
+            for (int i = 0; i < nodes; i++) {
+                limiters[i].shutdown();
+                clients[i].close();
+            }
+        } finally {
+            coordinator.shutdown();
+        }
+    }
+}
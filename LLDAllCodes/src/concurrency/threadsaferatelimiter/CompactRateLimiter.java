@@ -0,0 +1,299 @@
+package concurrency.threadsaferatelimiter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rate limiter for very large key counts (tens of millions of API keys) in a fixed amount of memory.
+ *
+ * Instead of a ConcurrentHashMap of bucket objects, keys live in open-addressed long[] tables of
+ * fixed-width slots: [64-bit key hash, GCRA theoretical arrival time (see GcraTokenBucket), last access
+ * tick], i.e. 24 bytes per slot with no per-key objects. Tables are sized for 75% load, so memory is
+ * 32 bytes per key of maxKeys (1.6 GB for 50M keys). The key string itself is not stored, so two keys
+ * whose 64-bit hashes collide share a bucket (about 1 in 10^4 chance across 50M keys).
+ *
+ * Layout: the table is split into segments. A key may live in any of the WINDOW slots following its home
+ * slot, so a lookup touches at most a few adjacent cache lines and slots never need to move. Segment
+ * sizes are not rounded to a power of two; the home slot is picked with a multiply-shift instead of a mask.
+ *
+ * Eviction: there is no sweep over the table. Every insert advances its segment's CLOCK hand over a few
+ * slots and frees those whose bucket has been full for the inactivity timeout; dropping such a bucket is
+ * lossless because a new one would behave the same. If the new key's window is still full, the least
+ * recently accessed slot in it is replaced; replacing an active key resets its bucket, which is counted
+ * in getForcedEvictionCount() as a sign that maxKeys is too small. Filled to exactly maxKeys distinct
+ * active keys, about 4% of inserts force an eviction; leave some headroom in maxKeys.
+ *
+ * Thread-safety: lookups and acquires are lock-free. The TAT word is the arbitration point: an acquire
+ * CASes it to consume, and an eviction first CASes it to EVICTING, so a slot is never reused while an
+ * acquire on the old key is in flight. Inserts and evictions take a per-segment lock.
+ */
+public class CompactRateLimiter {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int SLOT_WIDTH = 3;
+    private static final int KEY = 0;
+    private static final int TAT = 1;
+    private static final int LAST_ACCESS = 2;
+    private static final int WINDOW = 8;        // Slots a key may occupy, starting at its home slot
+    private static final int CLOCK_STEP = 4;    // Slots the clock hand inspects per insert
+    private static final int SEGMENTS = 64;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final long EMPTY = 0;
+    private static final long EVICTING = Long.MIN_VALUE;
+    private static final int ACCESS_TICK_SHIFT = 20;   // Last access is kept in ~1 ms ticks of nanoTime
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final long idleNanos;
+    private final long capacity;
+    private final double tokensPerSecond;
+    private final LongAdder forcedEvictions = new LongAdder();
+
+    public CompactRateLimiter(RateLimitConfig config, long maxKeys) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.capacity = config.getCapacity();
+        this.tokensPerSecond = config.getTokensPerSecond();
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000.0 / tokensPerSecond));
+        this.burstNanos = Math.multiplyExact(capacity, emissionIntervalNanos);
+        this.idleNanos = config.getInactivityTimeout().toNanos();
+
+        // 75% load, so most windows keep a free slot and forced evictions stay rare
+        long slotsPerSegment = Math.max(WINDOW, (maxKeys * 4 / 3 + SEGMENTS - 1) / SEGMENTS);
+        if (slotsPerSegment * SLOT_WIDTH > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("maxKeys too large: " + maxKeys);
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment((int) slotsPerSegment);
+        }
+    }
+
+    public boolean tryAcquire(String clientId) {
+        return tryAcquire(clientId, 1);
+    }
+
+    public boolean tryAcquire(String clientId, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        long hash = hash64(clientId);
+        Segment segment = segmentFor(hash);
+        long costNanos = permits * emissionIntervalNanos;
+        while (true) {
+            long now = System.nanoTime();
+            int slot = segment.find(hash);
+            if (slot < 0) {
+                slot = segment.insert(hash, now);
+            }
+            long[] slots = segment.slots;
+            int base = slot * SLOT_WIDTH;
+
+            // Step 1: read TAT, then confirm the slot still holds our key (it may have been reused)
+            long tat = (long) SLOTS.getVolatile(slots, base + TAT);
+            if (tat == EVICTING || (long) SLOTS.getVolatile(slots, base + KEY) != hash) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            // Step 2: GCRA, exactly as in GcraTokenBucket
+            long newTat = (tat - now > 0 ? tat : now) + costNanos;
+            if (newTat - now > burstNanos) {
+                touch(slots, base, now);
+                return false;
+            }
+            if (SLOTS.compareAndSet(slots, base + TAT, tat, newTat)) {
+                touch(slots, base, now);
+                return true;
+            }
+            // Lost to another acquire or an eviction; retry with fresh state
+        }
+    }
+
+    /**
+     * Returns information about a client's current rate limit state.
+     */
+    public RateLimitInfo getClientInfo(String clientId) {
+        long hash = hash64(clientId);
+        Segment segment = segmentFor(hash);
+        int slot = segment.find(hash);
+        double available = capacity;
+        if (slot >= 0) {
+            long tat = (long) SLOTS.getVolatile(segment.slots, slot * SLOT_WIDTH + TAT);
+            if (tat != EVICTING) {
+                long debtNanos = Math.max(0, tat - System.nanoTime());
+                available = (burstNanos - debtNanos) / (double) emissionIntervalNanos;
+            }
+        }
+        return new RateLimitInfo(available, capacity, tokensPerSecond);
+    }
+
+    /**
+     * Returns the number of keys currently held. For monitoring purposes.
+     */
+    public long getKeyCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.size;
+        }
+        return count;
+    }
+
+    /**
+     * Number of keys with a non-idle bucket that were replaced because their window was full.
+     */
+    public long getForcedEvictionCount() {
+        return forcedEvictions.sum();
+    }
+
+    /**
+     * Bytes held by the slot tables.
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.slots.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> SEGMENT_SHIFT)];
+    }
+
+    private static void touch(long[] slots, int base, long now) {
+        long tick = now >> ACCESS_TICK_SHIFT;
+        // Why: write at most once per tick, so a hot key's rejections don't keep dirtying the cache line
+        if ((long) SLOTS.getOpaque(slots, base + LAST_ACCESS) != tick) {
+            SLOTS.setOpaque(slots, base + LAST_ACCESS, tick);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars with a murmur3 finalizer; 0 is reserved for empty slots.
+     */
+    static long hash64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+
+    private final class Segment {
+        final long[] slots;
+        final int slotCount;
+        final ReentrantLock lock = new ReentrantLock();
+        int hand;                               // Guarded by lock
+        volatile int size;                      // Written under lock
+
+        Segment(int slotCount) {
+            this.slots = new long[slotCount * SLOT_WIDTH];
+            this.slotCount = slotCount;
+            for (int base = 0; base < slots.length; base += SLOT_WIDTH) {
+                slots[base + TAT] = EVICTING;   // Empty slots always carry EVICTING; see occupy()
+            }
+        }
+
+        int find(long hash) {
+            int slot = homeSlot(hash);
+            for (int i = 0; i < WINDOW; i++, slot = nextSlot(slot)) {
+                // Scan the whole window: freed slots leave gaps, so an empty slot doesn't end the search
+                if ((long) SLOTS.getVolatile(slots, slot * SLOT_WIDTH + KEY) == hash) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        int insert(long hash, long now) {
+            lock.lock();
+            try {
+                int existing = find(hash);      // Another thread may have inserted it meanwhile
+                if (existing >= 0) {
+                    return existing;
+                }
+                advanceClock(now);
+
+                int slot = homeSlot(hash);
+                int victim = -1;
+                long oldestAccess = Long.MAX_VALUE;
+                for (int i = 0; i < WINDOW; i++, slot = nextSlot(slot)) {
+                    int base = slot * SLOT_WIDTH;
+                    if ((long) SLOTS.getVolatile(slots, base + KEY) == EMPTY) {
+                        occupy(base, hash, now);
+                        size++;
+                        return slot;
+                    }
+                    long lastAccess = (long) SLOTS.getOpaque(slots, base + LAST_ACCESS);
+                    if (lastAccess < oldestAccess) {
+                        oldestAccess = lastAccess;
+                        victim = slot;
+                    }
+                }
+
+                // Window full: replace its least recently accessed key
+                int base = victim * SLOT_WIDTH;
+                long tat;
+                do {
+                    tat = (long) SLOTS.getVolatile(slots, base + TAT);
+                } while (!SLOTS.compareAndSet(slots, base + TAT, tat, EVICTING));
+                if (now - tat <= idleNanos) {
+                    forcedEvictions.increment();
+                }
+                occupy(base, hash, now);
+                return victim;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Maps the low 32 hash bits onto [0, slotCount); the top bits already picked the segment
+        private int homeSlot(long hash) {
+            return (int) (((hash & 0xffffffffL) * slotCount) >>> 32);
+        }
+
+        private int nextSlot(int slot) {
+            return slot + 1 == slotCount ? 0 : slot + 1;
+        }
+
+        /**
+         * Frees idle slots under the clock hand. Called with the lock held.
+         */
+        private void advanceClock(long now) {
+            for (int i = 0; i < CLOCK_STEP; i++) {
+                int base = hand * SLOT_WIDTH;
+                hand = nextSlot(hand);
+                if ((long) SLOTS.getVolatile(slots, base + KEY) == EMPTY) {
+                    continue;
+                }
+                long tat = (long) SLOTS.getVolatile(slots, base + TAT);
+                // The CAS fails if an acquire just used the bucket, in which case it is not idle anymore
+                if (tat != EVICTING && now - tat > idleNanos
+                        && SLOTS.compareAndSet(slots, base + TAT, tat, EVICTING)) {
+                    SLOTS.setVolatile(slots, base + KEY, EMPTY);
+                    size--;
+                }
+            }
+        }
+
+        /**
+         * Fills a slot whose TAT is EVICTING. Called with the lock held.
+         */
+        private void occupy(int base, long hash, long now) {
+            // Order matters: while TAT is EVICTING, acquires on this slot spin, so the key can be
+            // switched safely. Writing TAT last releases the slot; a reader of the old key that then
+            // reads the new TAT is guaranteed to see the new key on its re-check and retries.
+            SLOTS.setVolatile(slots, base + KEY, hash);
+            SLOTS.setVolatile(slots, base + LAST_ACCESS, now >> ACCESS_TICK_SHIFT);
+            SLOTS.setVolatile(slots, base + TAT, now);  // TAT <= now: a full bucket
+        }
+    }
+}
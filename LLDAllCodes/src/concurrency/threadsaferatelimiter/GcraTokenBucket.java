@@ -0,0 +1,163 @@
+package concurrency.threadsaferatelimiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket expressed as GCRA (Generic Cell Rate Algorithm): the whole state is one long, the
+ * "theoretical arrival time" (TAT), updated with a single CAS.
+ *
+ * Why: TokenBucket keeps tokens and the refill time in two AtomicLongs but CASes only one of them, so two
+ * threads can both add the same elapsed time (double-counted refill), and every call also writes
+ * lastAccessTimeNanos, which keeps the cache line bouncing between cores even when requests are rejected.
+ *
+ * Model: each permit "costs" one emission interval T = 1s / rate. TAT is the time at which the bucket
+ * would be full again. A request for n permits is allowed if, after paying n * T, TAT is no further than
+ * capacity * T ahead of now; i.e. at most `capacity` permits of debt, which is exactly a full bucket.
+ *
+ * Thread-safety: rejections never write, so a saturated hot key is read-only; successful acquires
+ * pay one CAS on one word.
+ */
+public class GcraTokenBucket {
+    private final AtomicLong theoreticalArrivalNanos;
+    private final long emissionIntervalNanos;   // T: time to earn back one token
+    private final long burstNanos;              // capacity * T: how far TAT may run ahead of now
+    private final long capacity;
+    private final double tokensPerSecond;
+
+    /**
+     * Permits handed out by tryGrant(), and the TAT right after they were charged: the time at which the
+     * bucket will have refilled them.
+     */
+    public static final class Grant {
+        public final long permits;
+        public final long repaidAtNanos;
+
+        Grant(long permits, long repaidAtNanos) {
+            this.permits = permits;
+            this.repaidAtNanos = repaidAtNanos;
+        }
+    }
+
+    public GcraTokenBucket(long capacity, double tokensPerSecond) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and tokensPerSecond must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerSecond = tokensPerSecond;
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000.0 / tokensPerSecond));
+        this.burstNanos = Math.multiplyExact(capacity, emissionIntervalNanos);
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());   // TAT <= now: start full
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    public boolean tryAcquire(int permits) {
+        long costNanos = permits * emissionIntervalNanos;
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalNanos.get();
+
+            // Step 1: a bucket that has been idle is full; don't let it bank more than capacity
+            long base = tat - now > 0 ? tat : now;
+            long newTat = base + costNanos;
+
+            // Step 2: reject without writing anything if this would exceed the burst
+            if (newTat - now > burstNanos) {
+                return false;
+            }
+
+            // Step 3: one CAS publishes the refill and the consumption together
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return true;
+            }
+            // Another thread acquired in between; retry against its TAT
+        }
+    }
+
+    /**
+     * Takes as many permits as are available, up to maxPermits, with one CAS (possibly 0). Used to hand
+     * out token batches, e.g. leases to cluster nodes; keep the Grant to return unused permits later.
+     */
+    public Grant tryGrant(long maxPermits) {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalNanos.get();
+            long base = tat - now > 0 ? tat : now;
+            long granted = Math.min(maxPermits, (burstNanos - (base - now)) / emissionIntervalNanos);
+            if (granted <= 0) {
+                return new Grant(0, base);
+            }
+            long newTat = base + granted * emissionIntervalNanos;
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return new Grant(granted, newTat);
+            }
+        }
+    }
+
+    /**
+     * Gives back permits right after acquiring them without using them, e.g. a rolled-back acquire.
+     * A bucket never refills past full: once TAT falls behind now, tryAcquire() starts from now again.
+     */
+    public void release(long permits) {
+        theoreticalArrivalNanos.getAndAdd(-permits * emissionIntervalNanos);
+    }
+
+    /**
+     * Gives back unused permits of a grant that may be old. Only the part of the grant the bucket has not
+     * refilled yet is credited: by grant.repaidAtNanos the whole grant has been earned back, and crediting
+     * it again would let those tokens be spent twice. Never moves TAT behind now. Returns the permits
+     * actually credited.
+     */
+    public long release(long permits, Grant grant) {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalNanos.get();
+            long outstanding = Math.max(0, Math.min(grant.repaidAtNanos, tat) - now) / emissionIntervalNanos;
+            long credit = Math.min(Math.min(permits, grant.permits), outstanding);
+            if (credit <= 0) {
+                return 0;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, tat - credit * emissionIntervalNanos)) {
+                return credit;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until tryAcquire(permits) can succeed, or 0 if it can now. Lets waiters sleep until
+     * exactly then instead of polling.
+     */
+    public long nanosUntilAvailable(int permits) {
+        long now = System.nanoTime();
+        long tat = theoreticalArrivalNanos.get();
+        long base = tat - now > 0 ? tat : now;
+        return Math.max(0, base + permits * emissionIntervalNanos - now - burstNanos);
+    }
+
+    /**
+     * Returns current available tokens, for monitoring.
+     */
+    public double getAvailableTokens() {
+        long now = System.nanoTime();
+        long debtNanos = Math.max(0, theoreticalArrivalNanos.get() - now);
+        return (burstNanos - debtNanos) / (double) emissionIntervalNanos;
+    }
+
+    /**
+     * True if the bucket has been full for at least idleNanos. Removing such a bucket loses nothing:
+     * a fresh one behaves identically, so no separate last-access timestamp is needed.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrivalNanos.get() > idleNanos;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+}
@@ -0,0 +1,140 @@
+package concurrency.threadsaferatelimiter;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * LeaseCoordinator that keeps one GcraTokenBucket per key with the cluster-wide limit. Use it directly
+ * for nodes in the same JVM, or behind a LeaseCoordinatorServer for nodes in other processes.
+ *
+ * Accuracy: tokens leased to a node but not yet used are the cluster's only error - they are counted
+ * as spent although no request used them. The coordinator caps every grant at
+ * maxBatch = tolerance * capacity / activeNodes. A ClusteredRateLimiter renews once half of its last
+ * grant is spent, so it can hold up to half a grant plus a new one: about 1.5 * maxBatch per node, and
+ * so about 1.5 * tolerance * capacity tokens per key stranded in leases. When nodes join, maxBatch
+ * shrinks but larger grants already handed out stay held until they are spent or their leases
+ * expire. A node counts as active if it asked for a lease within the node timeout.
+ *
+ * Returned tokens are credited against the node's last grant for the key, and only for the part of it
+ * the bucket has not refilled yet (see GcraTokenBucket.release(long, Grant)). Tokens returned after
+ * their grant has been earned back are simply dropped, so a late return can never credit them twice.
+ */
+public class InProcessLeaseCoordinator implements LeaseCoordinator {
+    private final ConcurrentHashMap<String, GcraTokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> nodeLastSeenNanos = new ConcurrentHashMap<>();
+    // Last grant per node and key ("node\nkey"); a release is credited against it at most once
+    private final ConcurrentHashMap<String, GcraTokenBucket.Grant> lastGrants = new ConcurrentHashMap<>();
+    private final RateLimitConfig config;
+    private final long maxOutstandingTokens;
+    private final long nodeTimeoutNanos;
+    private final ScheduledExecutorService cleanupScheduler;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    /**
+     * @param config     the cluster-wide limit per key
+     * @param tolerance  fraction of capacity that may sit unused in node leases, e.g. 0.1
+     * @param nodeTimeout how long a node that stopped asking for leases still counts as active
+     */
+    public InProcessLeaseCoordinator(RateLimitConfig config, double tolerance, Duration nodeTimeout) {
+        if (tolerance <= 0 || tolerance > 1) {
+            throw new IllegalArgumentException("tolerance must be in (0, 1]");
+        }
+        this.config = config;
+        this.maxOutstandingTokens = Math.max(1, (long) (config.getCapacity() * tolerance));
+        this.nodeTimeoutNanos = nodeTimeout.toNanos();
+        this.cleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lease-coordinator-cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+        cleanupScheduler.scheduleAtFixedRate(
+            this::cleanup,
+            config.getCleanupInterval().toMillis(),
+            config.getCleanupInterval().toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public long acquireLease(String nodeId, String key, long requestedTokens) {
+        if (!running.get()) {
+            throw new IllegalStateException("LeaseCoordinator is shut down");
+        }
+        if (requestedTokens <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        nodeLastSeenNanos.put(nodeId, now);
+
+        // Split the tolerance between the nodes currently leasing; see the class comment for what they may hold
+        long maxBatch = Math.max(1, maxOutstandingTokens / activeNodeCount(now));
+        GcraTokenBucket.Grant grant = bucket(key).tryGrant(Math.min(requestedTokens, maxBatch));
+        if (grant.permits > 0) {
+            lastGrants.put(grantKey(nodeId, key), grant);
+        }
+        return grant.permits;
+    }
+
+    @Override
+    public void releaseLease(String nodeId, String key, long unusedTokens) {
+        GcraTokenBucket.Grant grant = lastGrants.remove(grantKey(nodeId, key));
+        GcraTokenBucket bucket = buckets.get(key);
+        if (grant != null && bucket != null && unusedTokens > 0) {
+            bucket.release(unusedTokens, grant);
+        }
+    }
+
+    public int getActiveNodeCount() {
+        return activeNodeCount(System.nanoTime());
+    }
+
+    public RateLimitInfo getKeyInfo(String key) {
+        GcraTokenBucket bucket = buckets.get(key);
+        double remaining = bucket == null ? config.getCapacity() : bucket.getAvailableTokens();
+        return new RateLimitInfo(remaining, config.getCapacity(), config.getTokensPerSecond());
+    }
+
+    public void shutdown() {
+        if (running.compareAndSet(true, false)) {
+            cleanupScheduler.shutdownNow();
+            buckets.clear();
+            lastGrants.clear();
+        }
+    }
+
+    private GcraTokenBucket bucket(String key) {
+        GcraTokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(key,
+            k -> new GcraTokenBucket(config.getCapacity(), config.getTokensPerSecond())
+        );
+    }
+
+    private static String grantKey(String nodeId, String key) {
+        return nodeId + '\n' + key;
+    }
+
+    private int activeNodeCount(long now) {
+        int count = 0;
+        for (long lastSeen : nodeLastSeenNanos.values()) {
+            if (now - lastSeen <= nodeTimeoutNanos) {
+                count++;
+            }
+        }
+        return Math.max(1, count);
+    }
+
+    private void cleanup() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, config.getInactivityTimeout().toNanos()));
+        nodeLastSeenNanos.entrySet().removeIf(entry -> now - entry.getValue() > nodeTimeoutNanos);
+        // Grants whose debt has been refilled can no longer be credited
+        lastGrants.values().removeIf(grant -> now - grant.repaidAtNanos >= 0);
+    }
+}
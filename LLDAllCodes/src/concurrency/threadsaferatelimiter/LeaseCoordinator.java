@@ -0,0 +1,24 @@
+package concurrency.threadsaferatelimiter;
+
+/**
+ * Owner of the cluster-wide token buckets. Nodes running a ClusteredRateLimiter lease batches of
+ * tokens per key from it and spend them locally.
+ *
+ * Leased tokens are taken from the global bucket when they are granted, so the cluster can never
+ * admit more than the global limit; tokens sitting unused in a node's lease are the only error, and
+ * the coordinator bounds them by capping batch sizes. Returning unused tokens must not credit more than
+ * the grant's debt the bucket still carries, or tokens it has already refilled would be spent twice.
+ */
+public interface LeaseCoordinator {
+    /**
+     * Grants up to requestedTokens tokens of key to the node. May grant fewer, or 0 if the key is
+     * exhausted.
+     */
+    long acquireLease(String nodeId, String key, long requestedTokens);
+
+    /**
+     * Returns tokens the node leased but did not use, e.g. when its lease expired or it shut down.
+     * Tokens whose grant the global bucket has already earned back are dropped, not credited.
+     */
+    void releaseLease(String nodeId, String key, long unusedTokens);
+}
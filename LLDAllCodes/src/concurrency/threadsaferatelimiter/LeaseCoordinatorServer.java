@@ -0,0 +1,97 @@
+package concurrency.threadsaferatelimiter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves a LeaseCoordinator on a loopback TCP port, so nodes in separate processes (or tests) can share
+ * one coordinator through RemoteLeaseCoordinator.
+ *
+ * Wire format, per request: byte op, UTF nodeId, UTF key, long tokens. The reply is one long: the tokens
+ * granted for ACQUIRE, 0 for RELEASE. Each connection is served by its own daemon thread, in order.
+ */
+public class LeaseCoordinatorServer implements AutoCloseable {
+    static final byte OP_ACQUIRE = 1;
+    static final byte OP_RELEASE = 2;
+
+    private final LeaseCoordinator coordinator;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptThread;
+
+    /**
+     * Binds to the loopback address; port 0 picks a free port (see getPort()).
+     */
+    public LeaseCoordinatorServer(LeaseCoordinator coordinator, int port) throws IOException {
+        this.coordinator = coordinator;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.acceptThread = new Thread(this::acceptLoop, "lease-coordinator-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread handler = new Thread(() -> serve(socket), "lease-coordinator-" + socket.getPort());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // accept() fails once the server socket is closed; the loop condition ends the thread
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                byte op = in.readByte();
+                String nodeId = in.readUTF();
+                String key = in.readUTF();
+                long tokens = in.readLong();
+                long reply = 0;
+                if (op == OP_ACQUIRE) {
+                    reply = coordinator.acquireLease(nodeId, key, tokens);
+                } else if (op == OP_RELEASE) {
+                    coordinator.releaseLease(nodeId, key, tokens);
+                } else {
+                    throw new IOException("Unknown lease operation " + op);
+                }
+                out.writeLong(reply);
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // Client closed the connection
+        } catch (IOException | RuntimeException e) {
+            // Drop the connection; the client reconnects on its next call
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+}
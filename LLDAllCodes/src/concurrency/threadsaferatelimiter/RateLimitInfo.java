@@ -0,0 +1,13 @@
+package concurrency.threadsaferatelimiter;
+
+/**
+ * Information about a client's rate limit state.
+ */
+record RateLimitInfo(double remainingTokens, long capacity, double tokensPerSecond) {
+    public double getResetTimeSeconds() {
+        if (remainingTokens >= capacity) {
+            return 0;
+        }
+        return (capacity - remainingTokens) / tokensPerSecond;
+    }
+}
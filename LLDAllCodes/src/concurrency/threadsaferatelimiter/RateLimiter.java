@@ -0,0 +1,306 @@
+package concurrency.threadsaferatelimiter;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-client rate limiter over GcraTokenBucket.
+ *
+ * tryAcquire() rejects immediately. acquire() and acquireAsync() wait instead: a waiter is parked in a
+ * per-client FIFO queue, and the limiter's single timer thread wakes the head of the queue at the moment
+ * its permits become available (see GcraTokenBucket.nanosUntilAvailable), so nobody sleeps or polls.
+ * While a client has waiters, tryAcquire() for that client rejects so newcomers cannot jump the queue.
+ * Blocked callers park on a CompletableFuture, which works for virtual threads without pinning.
+ */
+public class RateLimiter {
+    private static final long MIN_WAKEUP_NANOS = 100_000;  // Don't reschedule more often than every 0.1 ms
+
+    private final ConcurrentHashMap<String, GcraTokenBucket> buckets;
+    private final ConcurrentHashMap<String, WaitQueue> waitQueues = new ConcurrentHashMap<>();
+    private final RateLimitConfig config;
+    private final ScheduledExecutorService scheduler;     // Cleanup and waiter wake-ups for all clients
+    private final AtomicBoolean running;
+
+    private static final class Waiter {
+        final int permits;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Waiter(int permits) {
+            this.permits = permits;
+        }
+    }
+
+    private static final class WaitQueue {
+        final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean draining = new AtomicBoolean();   // A drain is running or scheduled
+    }
+
+    public RateLimiter(RateLimitConfig config) {
+        this.config = config;
+        this.buckets = new ConcurrentHashMap<>();
+        this.running = new AtomicBoolean(true);
+
+        // Start cleanup scheduler
+        // Daemon thread: won't prevent JVM shutdown if main threads are done
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limiter-timer");
+            t.setDaemon(true);  // Important: daemon threads don't block shutdown
+            return t;
+        });
+
+        // Schedule periodic cleanup to remove stale buckets (memory management)
+        scheduler.scheduleAtFixedRate(
+            this::cleanupStaleBuckets,
+            config.getCleanupInterval().toMillis(),
+            config.getCleanupInterval().toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Convenience constructor with default config.
+     */
+    public RateLimiter(double tokensPerSecond, long capacity) {
+        this(new RateLimitConfig(tokensPerSecond, capacity));
+    }
+
+    /**
+     * Attempts to acquire a permit for the given client.
+     * Returns true if allowed, false if rate limited.
+     */
+    public boolean tryAcquire(String clientId) {
+        if (!running.get()) {
+            throw new IllegalStateException("RateLimiter is shut down");
+        }
+        if (hasWaiters(clientId)) {
+            return false;
+        }
+
+        GcraTokenBucket bucket = bucket(clientId);
+
+        return bucket.tryAcquire();
+    }
+
+    /**
+     * Attempts to acquire multiple permits for the given client.
+     */
+    public boolean tryAcquire(String clientId, int permits) {
+        if (!running.get()) {
+            throw new IllegalStateException("RateLimiter is shut down");
+        }
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+
+        if (hasWaiters(clientId)) {
+            return false;
+        }
+
+        GcraTokenBucket bucket = bucket(clientId);
+
+        return bucket.tryAcquire(permits);
+    }
+
+    /**
+     * Waits up to timeout for permits, in FIFO order with other waiters of the same client.
+     * Returns true if acquired, false if the timeout elapsed first.
+     */
+    public boolean acquire(String clientId, int permits, Duration timeout) throws InterruptedException {
+        CompletableFuture<Void> future = acquireAsync(clientId, permits);
+        try {
+            future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            // cancel() fails only if the permits were granted in the meantime
+            return !future.cancel(false);
+        } catch (InterruptedException e) {
+            if (!future.cancel(false)) {
+                bucket(clientId).release(permits);
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("RateLimiter is shut down", e.getCause());
+        }
+    }
+
+    /**
+     * Returns a future that completes once the permits are acquired, in FIFO order with other waiters of
+     * the same client. Cancelling the future (or letting orTimeout() expire it) gives up the place in the
+     * queue. The future is completed on the limiter's timer thread, so attach slow callbacks with the
+     * *Async variants.
+     */
+    public CompletableFuture<Void> acquireAsync(String clientId, int permits) {
+        if (!running.get()) {
+            throw new IllegalStateException("RateLimiter is shut down");
+        }
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        if (permits > config.getCapacity()) {
+            throw new IllegalArgumentException("permits must not exceed capacity");
+        }
+
+        // Fast path: nobody is queued for this client and the tokens are there
+        if (!hasWaiters(clientId) && bucket(clientId).tryAcquire(permits)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Waiter waiter = new Waiter(permits);
+        // compute() makes the enqueue atomic with cleanup's removal of empty queues
+        WaitQueue queue = waitQueues.compute(clientId, (k, q) -> {
+            WaitQueue target = q != null ? q : new WaitQueue();
+            target.waiters.add(waiter);
+            return target;
+        });
+        // A waiter that gives up (cancel, orTimeout, acquire() timing out) leaves the queue right away,
+        // so it does not hold back tryAcquire() until the drain reaches it
+        waiter.future.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                queue.waiters.remove(waiter);
+            }
+        });
+        if (!running.get()) {
+            // Lost a race with shutdown(), which may already have failed this queue's waiters
+            waiter.future.completeExceptionally(new IllegalStateException("RateLimiter is shut down"));
+        } else if (queue.draining.compareAndSet(false, true)) {
+            scheduleDrain(clientId, queue, 0);
+        }
+        return waiter.future;
+    }
+
+    private boolean hasWaiters(String clientId) {
+        WaitQueue queue = waitQueues.get(clientId);
+        return queue != null && !queue.waiters.isEmpty();
+    }
+
+    /**
+     * Grants permits to waiters in queue order until the head has to wait, then sleeps until exactly the
+     * time its permits become available. Only one drain per client runs or is scheduled at a time.
+     */
+    private void drain(String clientId, WaitQueue queue) {
+        while (true) {
+            Waiter head;
+            while ((head = queue.waiters.peek()) != null) {
+                if (head.future.isDone()) {
+                    queue.waiters.poll();       // Timed out or cancelled
+                    continue;
+                }
+                GcraTokenBucket bucket = bucket(clientId);
+                if (!bucket.tryAcquire(head.permits)) {
+                    // Step 1: the head blocks everyone behind it (FIFO); wake up when its tokens exist
+                    scheduleDrain(clientId, queue, Math.max(MIN_WAKEUP_NANOS, bucket.nanosUntilAvailable(head.permits)));
+                    return;
+                }
+                queue.waiters.poll();
+                // Step 2: the waiter may have given up after the isDone() check; hand the tokens back
+                if (!head.future.complete(null)) {
+                    bucket.release(head.permits);
+                }
+            }
+            queue.draining.set(false);
+            // Why: a waiter added after the last peek() saw draining == true and did not schedule a drain
+            if (queue.waiters.isEmpty() || !queue.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void scheduleDrain(String clientId, WaitQueue queue, long delayNanos) {
+        try {
+            scheduler.schedule(() -> drain(clientId, queue), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shut down: shutdown() fails the remaining waiters
+            queue.draining.set(false);
+        }
+    }
+
+    private GcraTokenBucket bucket(String clientId) {
+        // get() first: for an existing key it is a plain read, while computeIfAbsent may lock the bin
+        GcraTokenBucket bucket = buckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        // computeIfAbsent is atomic - prevents double bucket creation
+        return buckets.computeIfAbsent(clientId,
+            k -> new GcraTokenBucket(config.getCapacity(), config.getTokensPerSecond())
+        );
+    }
+
+    /**
+     * Returns information about a client's current rate limit state.
+     */
+    public RateLimitInfo getClientInfo(String clientId) {
+        GcraTokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            // No bucket = full capacity available
+            return new RateLimitInfo(
+                config.getCapacity(),
+                config.getCapacity(),
+                config.getTokensPerSecond()
+            );
+        }
+
+        return new RateLimitInfo(
+            bucket.getAvailableTokens(),
+            bucket.getCapacity(),
+            bucket.getTokensPerSecond()
+        );
+    }
+
+    /**
+     * Removes buckets that have been full (i.e. unused) for longer than the inactivity timeout.
+     * Called periodically by the cleanup scheduler.
+     *
+     * Why cleanup? Without it, buckets for one-time clients would accumulate
+     * forever, causing memory leaks in long-running services.
+     */
+    private void cleanupStaleBuckets() {
+        long now = System.nanoTime();
+        long timeoutNanos = config.getInactivityTimeout().toNanos();
+
+        // Thread-safe maps allow safe iteration during concurrent modification.
+        // removeIf is atomic per-entry: either the entry is removed or it's not.
+        // A bucket that has been full that long is indistinguishable from a new one, so removing it is safe
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, timeoutNanos));
+
+        // Drop wait queues that have emptied; computeIfPresent is atomic with acquireAsync's compute()
+        for (String clientId : waitQueues.keySet()) {
+            waitQueues.computeIfPresent(clientId,
+                (k, q) -> q.waiters.isEmpty() && !q.draining.get() ? null : q);
+        }
+    }
+
+    /**
+     * Returns the number of active client buckets.
+     * For monitoring purposes.
+     */
+    public int getActiveBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Shuts down the rate limiter.
+     * Stops the scheduler, fails pending waiters and clears buckets.
+     */
+    public void shutdown() {
+        if (running.compareAndSet(true, false)) {
+            // shutdownNow: pending wake-ups may be far in the future and their waiters are failed below
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            IllegalStateException shutDown = new IllegalStateException("RateLimiter is shut down");
+            for (WaitQueue queue : waitQueues.values()) {
+                Waiter waiter;
+                while ((waiter = queue.waiters.poll()) != null) {
+                    waiter.future.completeExceptionally(shutDown);
+                }
+            }
+            waitQueues.clear();
+            buckets.clear();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package concurrency.threadsaferatelimiter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+
+/**
+ * Client side of LeaseCoordinatorServer. Calls share one connection and are serialized; they only run
+ * on lease renewals, not per request. A failed call closes the connection, throws UncheckedIOException
+ * and the next call reconnects.
+ */
+public class RemoteLeaseCoordinator implements LeaseCoordinator, AutoCloseable {
+    private final InetSocketAddress address;
+    private final int timeoutMillis;
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+
+    public RemoteLeaseCoordinator(String host, int port, Duration timeout) {
+        this.address = new InetSocketAddress(host, port);
+        this.timeoutMillis = (int) timeout.toMillis();
+    }
+
+    @Override
+    public long acquireLease(String nodeId, String key, long requestedTokens) {
+        return call(LeaseCoordinatorServer.OP_ACQUIRE, nodeId, key, requestedTokens);
+    }
+
+    @Override
+    public void releaseLease(String nodeId, String key, long unusedTokens) {
+        call(LeaseCoordinatorServer.OP_RELEASE, nodeId, key, unusedTokens);
+    }
+
+    private synchronized long call(byte op, String nodeId, String key, long tokens) {
+        try {
+            if (socket == null) {
+                connect();
+            }
+            out.writeByte(op);
+            out.writeUTF(nodeId);
+            out.writeUTF(key);
+            out.writeLong(tokens);
+            out.flush();
+            return in.readLong();
+        } catch (IOException e) {
+            disconnect();
+            throw new UncheckedIOException("Lease coordinator call to " + address + " failed", e);
+        }
+    }
+
+    private void connect() throws IOException {
+        Socket s = new Socket();
+        try {
+            s.connect(address, timeoutMillis);
+            s.setSoTimeout(timeoutMillis);
+            s.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            socket = s;
+        } catch (IOException e) {
+            s.close();
+            throw e;
+        }
+    }
+
+    private void disconnect() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already broken; nothing else to release
+            }
+            socket = null;
+            in = null;
+            out = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        disconnect();
+    }
+}
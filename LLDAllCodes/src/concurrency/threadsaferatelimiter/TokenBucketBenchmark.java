@@ -0,0 +1,74 @@
+package concurrency.threadsaferatelimiter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Contention benchmark: 1 to 64 threads hammering a single hot key, TokenBucket vs GcraTokenBucket.
+ *
+ * Reports throughput of tryAcquire() and how many permits were granted compared with what the configured
+ * rate allows (capacity + rate * elapsed). A ratio above 1.00 means refills were double-counted.
+ *
+ * Usage: java concurrency.threadsaferatelimiter.TokenBucketBenchmark [tokensPerSecond] [measureMillis]
+ */
+public class TokenBucketBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final long CAPACITY = 1_000;
+    private static final long WARMUP_MILLIS = 300;
+
+    public static void main(String[] args) throws InterruptedException {
+        double tokensPerSecond = args.length > 0 ? Double.parseDouble(args[0]) : 5_000_000;
+        long measureMillis = args.length > 1 ? Long.parseLong(args[1]) : 1_000;
+
+        System.out.printf("Hot key, capacity %d, %.0f tokens/s, %d ms per run%n", CAPACITY, tokensPerSecond, measureMillis);
+        System.out.printf("%-8s %-16s %14s %16s%n", "threads", "bucket", "Mops/s", "granted/allowed");
+        for (int threads : THREAD_COUNTS) {
+            TokenBucket current = new TokenBucket(CAPACITY, tokensPerSecond);
+            run(threads, "TokenBucket", current::tryAcquire, tokensPerSecond, measureMillis);
+            GcraTokenBucket gcra = new GcraTokenBucket(CAPACITY, tokensPerSecond);
+            run(threads, "GcraTokenBucket", gcra::tryAcquire, tokensPerSecond, measureMillis);
+        }
+    }
+
+    private static void run(int threads, String name, BooleanSupplier tryAcquire, double tokensPerSecond,
+                            long measureMillis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        LongAdder granted = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        long measureStart = start + WARMUP_MILLIS * 1_000_000;
+        long end = measureStart + measureMillis * 1_000_000;
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                long ops = 0;
+                long allowed = 0;
+                long now;
+                // Count locally and only publish at the end, so the benchmark adds no shared writes
+                while ((now = System.nanoTime()) < end) {
+                    boolean acquired = tryAcquire.getAsBoolean();
+                    if (now >= measureStart) {
+                        ops++;
+                        if (acquired) {
+                            allowed++;
+                        }
+                    }
+                }
+                operations.add(ops);
+                granted.add(allowed);
+                done.countDown();
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        double seconds = measureMillis / 1000.0;
+        // The warm-up drains the initial burst, so the measured window may grant at most rate * time
+        // (plus whatever burst was left, at most the capacity).
+        double allowedByRate = CAPACITY + tokensPerSecond * seconds;
+        System.out.printf("%-8d %-16s %14.2f %16.3f%n", threads, name,
+                operations.sum() / seconds / 1_000_000, granted.sum() / allowedByRate);
+    }
+}
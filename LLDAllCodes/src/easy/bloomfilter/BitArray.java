@@ -0,0 +1,110 @@
+package easy.bloomfilter;
+
+import java.nio.LongBuffer;
+
+/**
+ * Fixed-size bit set over 64-bit words that, unlike java.util.BitSet, can address more than 2^31 bits.
+ * The words live in a LongBuffer, which is either a heap long[] or a view of a memory-mapped snapshot
+ * file, so a persisted filter can be queried without copying it onto the heap.
+ */
+public class BitArray {
+    private static final long UNKNOWN = -1;
+
+    private final LongBuffer words;
+    private final long bitSize;
+    private long bitCount;                      // Counted lazily for mapped arrays
+
+    public BitArray(long bitSize) {
+        this(LongBuffer.wrap(new long[wordCountFor(bitSize)]), bitSize, 0);
+    }
+
+    /**
+     * Wraps existing words, e.g. a mapped snapshot. The buffer must hold exactly the words for bitSize bits.
+     */
+    BitArray(LongBuffer words, long bitSize) {
+        this(words, bitSize, UNKNOWN);
+    }
+
+    private BitArray(LongBuffer words, long bitSize, long bitCount) {
+        if (words.capacity() != wordCountFor(bitSize)) {
+            throw new IllegalArgumentException("Expected " + wordCountFor(bitSize) + " words for " + bitSize
+                    + " bits but got " + words.capacity() + ".");
+        }
+        this.words = words;
+        this.bitSize = bitSize;
+        this.bitCount = bitCount;
+    }
+
+    /**
+     * Sets the bit and returns true if it was previously clear.
+     */
+    public boolean set(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;                // Shift distance is taken mod 64
+        long current = words.get(word);
+        if ((current & mask) != 0) {
+            return false;
+        }
+        words.put(word, current | mask);
+        if (bitCount != UNKNOWN) {
+            bitCount++;
+        }
+        return true;
+    }
+
+    public boolean get(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public long bitCount() {
+        if (bitCount == UNKNOWN) {
+            long count = 0;
+            for (int i = 0; i < words.capacity(); i++) {
+                count += Long.bitCount(words.get(i));
+            }
+            bitCount = count;
+        }
+        return bitCount;
+    }
+
+    public long memoryBytes() {
+        return (long) words.capacity() * Long.BYTES;
+    }
+
+    int wordCount() {
+        return words.capacity();
+    }
+
+    long word(int index) {
+        return words.get(index);
+    }
+
+    void orWith(BitArray other) {
+        for (int i = 0; i < words.capacity(); i++) {
+            words.put(i, words.get(i) | other.words.get(i));
+        }
+        bitCount = UNKNOWN;
+    }
+
+    void andWith(BitArray other) {
+        for (int i = 0; i < words.capacity(); i++) {
+            words.put(i, words.get(i) & other.words.get(i));
+        }
+        bitCount = UNKNOWN;
+    }
+
+    static int wordCountFor(long bitSize) {
+        if (bitSize <= 0) {
+            throw new IllegalArgumentException("Bit array size must be positive.");
+        }
+        long wordCount = (bitSize + 63) >>> 6;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bit array too large: " + bitSize + " bits.");
+        }
+        return (int) wordCount;
+    }
+}
@@ -0,0 +1,111 @@
+package easy.bloomfilter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Cache-friendly, thread-safe Bloom filter.
+ *
+ * The bit array is split into 512-bit blocks (8 longs = one 64-byte cache line). An item's hash picks
+ * one block, and all k bits of the item are set inside that block, so a lookup touches a single line
+ * instead of k random ones. The JVM does not let us align a long[] to 64 bytes, so a block may straddle
+ * two adjacent lines; adjacent-line prefetch usually hides that second miss.
+ *
+ * Writers set bits with an atomic OR through a VarHandle, so concurrent add() calls need no lock and
+ * never lose each other's bits. Readers use opaque loads and never block.
+ *
+ * Confining bits to a block raises the false positive rate slightly for a given size, so the sizing
+ * factory adds 10% more bits than a classic Bloom filter would need.
+ */
+public class BlockedBloomFilter {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+    private static final double BLOCKING_OVERHEAD = 1.1;
+
+    private final long[] words;
+    private final int numBlocks;
+    private final int numHashFunctions;
+    private final long seed;
+
+    public BlockedBloomFilter(long numBits, int numHashFunctions, long seed) {
+        if (numBits <= 0 || numHashFunctions <= 0) {
+            throw new IllegalArgumentException("Number of bits and hash functions must be positive.");
+        }
+        long blocks = (numBits + BITS_PER_BLOCK - 1) / BITS_PER_BLOCK;
+        if (blocks * WORDS_PER_BLOCK > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Blocked Bloom filter too large: " + numBits + " bits.");
+        }
+        this.numBlocks = (int) blocks;
+        this.words = new long[numBlocks * WORDS_PER_BLOCK];
+        this.numHashFunctions = numHashFunctions;
+        this.seed = seed;
+    }
+
+    public static BlockedBloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        long numBits = (long) (BloomFilterMath.optimalNumOfBits(expectedInsertions, falsePositiveProbability) * BLOCKING_OVERHEAD);
+        int k = BloomFilterMath.optimalNumOfHashFunctions(expectedInsertions, numBits);
+        return new BlockedBloomFilter(numBits, k, 0L);
+    }
+
+    public void add(String item) {
+        Murmur3.Hash128 hash = Murmur3.scratch();
+        Murmur3.hash128(item, seed, hash);
+        int blockStart = blockStart(hash.h1());
+        long position = hash.h2();
+        long step = (hash.h1() >>> 32) | 1;       // Odd step visits k distinct bits of the block
+        for (int i = 0; i < numHashFunctions; i++) {
+            int bit = (int) position & (BITS_PER_BLOCK - 1);
+            int index = blockStart + (bit >>> 6);
+            long mask = 1L << bit;
+            // Skip the atomic write (and the cache line invalidation it causes) if the bit is already set
+            if (((long) WORDS.getOpaque(words, index) & mask) == 0) {
+                WORDS.getAndBitwiseOr(words, index, mask);
+            }
+            position += step;
+        }
+    }
+
+    public boolean mightContain(String item) {
+        Murmur3.Hash128 hash = Murmur3.scratch();
+        Murmur3.hash128(item, seed, hash);
+        int blockStart = blockStart(hash.h1());
+        long position = hash.h2();
+        long step = (hash.h1() >>> 32) | 1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            int bit = (int) position & (BITS_PER_BLOCK - 1);
+            if (((long) WORDS.getOpaque(words, blockStart + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false; // Definitely not in the set
+            }
+            position += step;
+        }
+        return true; // Might be in the set
+    }
+
+    /**
+     * False positive rate implied by the current fill. Scans the whole array, so call it sparingly.
+     */
+    public double expectedFpp() {
+        long bitsSet = 0;
+        for (int i = 0; i < words.length; i++) {
+            bitsSet += Long.bitCount((long) WORDS.getOpaque(words, i));
+        }
+        return BloomFilterMath.fppFromBitCount(bitsSet, bitSize(), numHashFunctions);
+    }
+
+    public long bitSize() {
+        return (long) words.length * Long.SIZE;
+    }
+
+    public int getNumHashFunctions() {
+        return numHashFunctions;
+    }
+
+    public long memoryBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    private int blockStart(long h1) {
+        return (int) ((h1 & Long.MAX_VALUE) % numBlocks) * WORDS_PER_BLOCK;
+    }
+}
@@ -0,0 +1,217 @@
+package easy.bloomfilter;
+
+import java.util.List;
+
+/**
+ * Bloom filter with two ways of deriving its k bit indexes:
+ *
+ * - Strategy mode: one HashStrategy per hash function, as before. k is capped by the strategies supplied.
+ * - Double-hashing mode (used when no strategies are given): a single Murmur3 128-bit hash per item,
+ *   split into h1 and h2, with index i = h1 + i * h2 (Kirsch-Mitzenmacher). Any k costs one hash pass
+ *   and no allocation per call.
+ *
+ * Either mode can be sized from expected insertions and a target false positive probability.
+ * Double-hashing filters can be saved and memory-mapped with BloomFilterSnapshot, and compatible
+ * filters (same size, k and seed) can be merged with union() and intersect().
+ */
+public class BloomFilter {
+    private final BitArray bitSet;
+    private final long bitSetSize;
+    private final int numHashFunctions;
+    private final List<HashStrategy> hashStrategies;   // null in double-hashing mode
+    private final long seed;
+
+    BloomFilter(long bitSetSize, int numHashFunctions, List<HashStrategy> strategies, long seed) {
+        this(new BitArray(bitSetSize), numHashFunctions, strategies, seed);
+    }
+
+    BloomFilter(BitArray bitSet, int numHashFunctions, List<HashStrategy> strategies, long seed) {
+        this.bitSetSize = bitSet.bitSize();
+        this.numHashFunctions = numHashFunctions;
+        this.bitSet = bitSet;
+        this.hashStrategies = strategies;
+        this.seed = seed;
+    }
+
+    public void add(String item) {
+        if (hashStrategies == null) {
+            Murmur3.Hash128 hash = Murmur3.scratch();
+            Murmur3.hash128(item, seed, hash);
+            long combined = hash.h1;
+            for (int i = 0; i < numHashFunctions; i++) {
+                // Mask the sign bit instead of Math.abs, which stays negative for Long.MIN_VALUE
+                bitSet.set((combined & Long.MAX_VALUE) % bitSetSize);
+                combined += hash.h2;
+            }
+            return;
+        }
+        for (int i = 0; i < numHashFunctions; i++) {
+            long hash = hashStrategies.get(i).hash(item);
+            bitSet.set(Math.floorMod(hash, bitSetSize));
+        }
+    }
+
+    public boolean mightContain(String item) {
+        if (hashStrategies == null) {
+            Murmur3.Hash128 hash = Murmur3.scratch();
+            Murmur3.hash128(item, seed, hash);
+            long combined = hash.h1;
+            for (int i = 0; i < numHashFunctions; i++) {
+                if (!bitSet.get((combined & Long.MAX_VALUE) % bitSetSize)) {
+                    return false; // Definitely not in the set
+                }
+                combined += hash.h2;
+            }
+            return true; // Might be in the set
+        }
+        for (int i = 0; i < numHashFunctions; i++) {
+            long hash = hashStrategies.get(i).hash(item);
+            if (!bitSet.get(Math.floorMod(hash, bitSetSize))) {
+                return false; // Definitely not in the set
+            }
+        }
+        return true; // Might be in the set
+    }
+
+    public long getBitSetSize() {
+        return bitSetSize;
+    }
+
+    public int getNumHashFunctions() {
+        return numHashFunctions;
+    }
+
+    /**
+     * False positive rate implied by the fraction of bits currently set.
+     */
+    public double expectedFpp() {
+        return BloomFilterMath.fppFromBitCount(bitSet.bitCount(), bitSetSize, numHashFunctions);
+    }
+
+    public long memoryBytes() {
+        return bitSet.memoryBytes();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isDoubleHashing() {
+        return hashStrategies == null;
+    }
+
+    /**
+     * True if both filters map every item to the same bits, so their bit arrays can be combined.
+     */
+    public boolean isCompatible(BloomFilter other) {
+        return other != this
+                && isDoubleHashing() && other.isDoubleHashing()
+                && bitSetSize == other.bitSetSize
+                && numHashFunctions == other.numHashFunctions
+                && seed == other.seed;
+    }
+
+    /**
+     * Adds every item of the other filter to this one (bitwise OR), e.g. to merge per-partition filters.
+     */
+    public void union(BloomFilter other) {
+        checkCompatible(other);
+        bitSet.orWith(other.bitSet);
+    }
+
+    /**
+     * Keeps only bits set in both filters (bitwise AND). The result might contain every item present in
+     * both inputs; its false positive rate is at most that of either input.
+     */
+    public void intersect(BloomFilter other) {
+        checkCompatible(other);
+        bitSet.andWith(other.bitSet);
+    }
+
+    BitArray bitArray() {
+        return bitSet;
+    }
+
+    private void checkCompatible(BloomFilter other) {
+        if (!isCompatible(other)) {
+            throw new IllegalArgumentException("Bloom filters must both use double hashing with the same "
+                    + "bit set size, number of hash functions and seed.");
+        }
+    }
+
+    public static class Builder {
+        private long bitSetSize;
+        private int numHashFunctions;
+        private List<HashStrategy> strategies;
+        private long expectedInsertions;
+        private double falsePositiveProbability;
+        private long seed;
+
+        public Builder withBitSetSize(long bitSetSize) {
+            if (bitSetSize <= 0) {
+                throw new IllegalArgumentException("Bit set size must be positive.");
+            }
+            this.bitSetSize = bitSetSize;
+            return this;
+        }
+
+        public Builder withNumHashFunctions(int numHashFunctions) {
+            if (numHashFunctions <= 0) {
+                throw new IllegalArgumentException("Number of hash functions must be positive.");
+            }
+            this.numHashFunctions = numHashFunctions;
+            return this;
+        }
+
+        public Builder withHashStrategies(List<HashStrategy> strategies) {
+            if (strategies == null || strategies.isEmpty()) {
+                throw new IllegalArgumentException("At least one hash strategy must be provided.");
+            }
+            this.strategies = strategies;
+            return this;
+        }
+
+        /**
+         * Derive the bit set size (and, unless set explicitly, the number of hash functions)
+         * from the expected number of insertions and the target false positive probability.
+         */
+        public Builder withExpectedInsertions(long expectedInsertions, double falsePositiveProbability) {
+            this.bitSetSize = BloomFilterMath.optimalNumOfBits(expectedInsertions, falsePositiveProbability);
+            this.expectedInsertions = expectedInsertions;
+            this.falsePositiveProbability = falsePositiveProbability;
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public BloomFilter build() {
+            if (numHashFunctions == 0 && expectedInsertions > 0) {
+                numHashFunctions = BloomFilterMath.optimalNumOfHashFunctions(expectedInsertions, bitSetSize);
+            }
+            if (bitSetSize == 0 || numHashFunctions == 0) {
+                throw new IllegalStateException("Must set bit set size and number of hash functions, or expected insertions.");
+            }
+
+            if (strategies != null && strategies.size() < numHashFunctions) {
+                throw new IllegalStateException(
+                        "The number of provided hash strategies (" + strategies.size() + ") " +
+                                "must be at least equal to the number of hash functions required (" + numHashFunctions + ")."
+                );
+            }
+
+            System.out.printf("Creating Bloom Filter with specified parameters:%n" +
+                    "  - Bit set size (m): %d%n" +
+                    "  - Hash functions (k): %d%n" +
+                    "  - Hashing: %s%n", bitSetSize, numHashFunctions,
+                    strategies == null ? "Murmur3 128-bit double hashing" : strategies.size() + " strategies");
+            if (expectedInsertions > 0) {
+                System.out.printf("  - Sized for %d insertions at FPP %.4f%n", expectedInsertions, falsePositiveProbability);
+            }
+
+            return new BloomFilter(bitSetSize, numHashFunctions, strategies, seed);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package easy.bloomfilter;
+
+import java.util.*;
+
+public class BloomFilterDemo {
+    public static void main(String[] args) {
+        int expectedInsertions = 1000;
+
+        // --- 1. Strategy mode: one hash strategy per hash function ---
+        List<HashStrategy> strategies = List.of(
+                HashStrategyFactory.create(HashType.FNV1A),
+                HashStrategyFactory.create(HashType.DJB2)
+        );
+        BloomFilter strategyFilter = new BloomFilter.Builder()
+                .withBitSetSize(10000)
+                .withNumHashFunctions(2)
+                .withHashStrategies(strategies)
+                .build();
+        runChecks(strategyFilter, expectedInsertions);
+
+        // --- 2. Double-hashing mode: sized from expected insertions and target FPP ---
+        System.out.println();
+        BloomFilter sizedFilter = new BloomFilter.Builder()
+                .withExpectedInsertions(expectedInsertions, 0.01)
+                .build();
+        runChecks(sizedFilter, expectedInsertions);
+    }
+
+    private static void runChecks(BloomFilter filter, int insertions) {
+        // --- Add elements to the filter ---
+        System.out.println("\n--- Adding elements to the filter ---");
+        List<String> insertedElements = new ArrayList<>();
+        for (int i = 0; i < insertions; i++) {
+            String element = "user" + i + "@example.com";
+            insertedElements.add(element);
+            filter.add(element);
+        }
+        System.out.println(insertions + " elements have been added.");
+
+        // --- Test for presence (no false negatives) ---
+        System.out.println("\n--- Verifying no false negatives ---");
+        boolean hasFalseNegatives = false;
+        for (String element : insertedElements) {
+            if (!filter.mightContain(element)) {
+                System.err.println("FALSE NEGATIVE DETECTED FOR: " + element);
+                hasFalseNegatives = true;
+                break;
+            }
+        }
+        if (!hasFalseNegatives) {
+            System.out.println("Success! No false negatives found. All inserted elements were detected.");
+        }
+
+        // --- Test for false positives ---
+        System.out.println("\n--- Testing for false positives ---");
+        int testSetSize = 10000;
+        int falsePositivesCount = 0;
+        for (int i = 0; i < testSetSize; i++) {
+            String randomElement = UUID.randomUUID().toString();
+            if (filter.mightContain(randomElement)) {
+                falsePositivesCount++;
+            }
+        }
+        System.out.println("Number of false positives found: " + falsePositivesCount + " out of " + testSetSize + " random items.");
+    }
+}
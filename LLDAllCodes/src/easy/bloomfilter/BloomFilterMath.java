@@ -0,0 +1,46 @@
+package easy.bloomfilter;
+
+/**
+ * Standard Bloom filter sizing formulas.
+ */
+public final class BloomFilterMath {
+    private BloomFilterMath() {}
+
+    /**
+     * m = -n ln(p) / (ln 2)^2
+     */
+    public static long optimalNumOfBits(long expectedInsertions, double falsePositiveProbability) {
+        checkArguments(expectedInsertions, falsePositiveProbability);
+        return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+    }
+
+    /**
+     * k = (m / n) ln 2, at least 1
+     */
+    public static int optimalNumOfHashFunctions(long expectedInsertions, long numBits) {
+        return Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * p = (1 - e^(-k n / m))^k
+     */
+    public static double expectedFpp(long insertions, long numBits, int numHashFunctions) {
+        return Math.pow(1 - Math.exp(-(double) numHashFunctions * insertions / numBits), numHashFunctions);
+    }
+
+    /**
+     * False positive rate implied by the fraction of bits that are set: (bitsSet / m)^k
+     */
+    public static double fppFromBitCount(long bitsSet, long numBits, int numHashFunctions) {
+        return Math.pow((double) bitsSet / numBits, numHashFunctions);
+    }
+
+    private static void checkArguments(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive.");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1.");
+        }
+    }
+}
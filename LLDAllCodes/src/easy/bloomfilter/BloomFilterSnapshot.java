@@ -0,0 +1,168 @@
+package easy.bloomfilter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned binary format for double-hashing BloomFilters, so services can load a filter at start-up
+ * instead of rebuilding it from source data.
+ *
+ * Layout (little-endian, 40-byte header so the bit words start 8-byte aligned):
+ *   int    magic "BLMF"
+ *   short  format version
+ *   short  hash algorithm id
+ *   int    number of hash functions (k)
+ *   int    reserved (0)
+ *   long   hash seed
+ *   long   number of bits (m)
+ *   long   number of 64-bit words that follow
+ *   long[] bit words
+ *
+ * Snapshots are written to a temporary file, forced to disk and atomically renamed over the target,
+ * so readers see either the old file or the complete new one. map() serves lookups straight from the
+ * page cache via FileChannel.map; read() copies the bits onto the heap so the filter can be updated.
+ * A single mapping is limited to 2 GB, i.e. about 17 billion bits, so larger snapshots can only be read().
+ */
+public final class BloomFilterSnapshot {
+    private static final int MAGIC = 0x424c4d46;          // "BLMF"
+    private static final short VERSION = 1;
+    private static final short ALGORITHM_MURMUR3_128_DOUBLE_HASHING = 1;
+    private static final int HEADER_BYTES = 40;
+    private static final int CHUNK_WORDS = 64 * 1024;
+
+    private BloomFilterSnapshot() {}
+
+    public static void write(BloomFilter filter, Path target) throws IOException {
+        if (!filter.isDoubleHashing()) {
+            throw new IllegalArgumentException("Only double-hashing Bloom filters can be persisted.");
+        }
+        BitArray bits = filter.bitArray();
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temp = Files.createTempFile(absoluteTarget.getParent(), absoluteTarget.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC)
+                        .putShort(VERSION)
+                        .putShort(ALGORITHM_MURMUR3_128_DOUBLE_HASHING)
+                        .putInt(filter.getNumHashFunctions())
+                        .putInt(0)
+                        .putLong(filter.getSeed())
+                        .putLong(filter.getBitSetSize())
+                        .putLong(bits.wordCount())
+                        .flip();
+                writeFully(channel, header);
+
+                ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_WORDS * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < bits.wordCount(); i++) {
+                    chunk.putLong(bits.word(i));
+                    if (!chunk.hasRemaining()) {
+                        writeFully(channel, chunk.flip());
+                        chunk.clear();
+                    }
+                }
+                writeFully(channel, chunk.flip());
+                channel.force(true);
+            }
+            Files.move(temp, absoluteTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps the snapshot read-only. Lookups read the file's pages directly; add() and union() will throw.
+     * The mapping stays valid after this method returns, even though the channel is closed.
+     */
+    public static BloomFilter map(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, source);
+            if (header.wordCount * Long.BYTES > Integer.MAX_VALUE) {
+                throw new IOException("Bloom filter snapshot of " + header.numBits
+                        + " bits is too large to map (2 GB limit), use read() instead: " + source);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, header.wordCount * Long.BYTES);
+            LongBuffer words = mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            return new BloomFilter(new BitArray(words, header.numBits), header.numHashFunctions, null, header.seed);
+        }
+    }
+
+    /**
+     * Loads the snapshot into a heap-backed, mutable filter.
+     */
+    public static BloomFilter read(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, source);
+            // Streamed in chunks rather than mapped, so the snapshot may exceed the 2 GB mapping limit
+            long[] words = new long[(int) header.wordCount];
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_WORDS * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int i = 0;
+            while (i < words.length) {
+                int count = Math.min(CHUNK_WORDS, words.length - i);
+                chunk.clear().limit(count * Long.BYTES);
+                while (chunk.hasRemaining()) {
+                    if (channel.read(chunk) < 0) {
+                        throw new IOException("Truncated Bloom filter snapshot: " + source);
+                    }
+                }
+                chunk.flip().asLongBuffer().get(words, i, count);
+                i += count;
+            }
+            BitArray bits = new BitArray(LongBuffer.wrap(words), header.numBits);
+            return new BloomFilter(bits, header.numHashFunctions, null, header.seed);
+        }
+    }
+
+    private static Header readHeader(FileChannel channel, Path source) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated Bloom filter snapshot header: " + source);
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a Bloom filter snapshot: " + source);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported Bloom filter snapshot version " + version + ": " + source);
+        }
+        short algorithm = buffer.getShort();
+        if (algorithm != ALGORITHM_MURMUR3_128_DOUBLE_HASHING) {
+            throw new IOException("Unsupported hash algorithm " + algorithm + ": " + source);
+        }
+        Header header = new Header();
+        header.numHashFunctions = buffer.getInt();
+        buffer.getInt();                        // Reserved
+        header.seed = buffer.getLong();
+        header.numBits = buffer.getLong();
+        header.wordCount = buffer.getLong();
+        if (header.wordCount != BitArray.wordCountFor(header.numBits)
+                || channel.size() != HEADER_BYTES + header.wordCount * Long.BYTES) {
+            throw new IOException("Corrupt Bloom filter snapshot (size mismatch): " + source);
+        }
+        return header;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static final class Header {
+        int numHashFunctions;
+        long seed;
+        long numBits;
+        long wordCount;
+    }
+}
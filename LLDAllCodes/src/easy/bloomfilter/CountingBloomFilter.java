@@ -0,0 +1,128 @@
+package easy.bloomfilter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bloom filter that supports remove(), using 4-bit counters instead of bits.
+ *
+ * Sixteen counters are packed into each long and updated with a CAS loop, so concurrent callers need
+ * no lock. A counter that reaches 15 sticks there: we no longer know its true value, and decrementing
+ * it could produce a false negative. Removing an item that was never added corrupts the filter, so
+ * remove() first checks that the item might be present.
+ */
+public class CountingBloomFilter {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long MAX_COUNT = 15;
+
+    private final long[] words;
+    private final long numCounters;
+    private final int numHashFunctions;
+    private final long seed;
+
+    public CountingBloomFilter(long numCounters, int numHashFunctions, long seed) {
+        if (numCounters <= 0 || numHashFunctions <= 0) {
+            throw new IllegalArgumentException("Number of counters and hash functions must be positive.");
+        }
+        long wordCount = (numCounters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Counting Bloom filter too large: " + numCounters + " counters.");
+        }
+        this.words = new long[(int) wordCount];
+        this.numCounters = numCounters;
+        this.numHashFunctions = numHashFunctions;
+        this.seed = seed;
+    }
+
+    public static CountingBloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        long numCounters = BloomFilterMath.optimalNumOfBits(expectedInsertions, falsePositiveProbability);
+        int k = BloomFilterMath.optimalNumOfHashFunctions(expectedInsertions, numCounters);
+        return new CountingBloomFilter(numCounters, k, 0L);
+    }
+
+    public void add(String item) {
+        Murmur3.Hash128 hash = Murmur3.scratch();
+        Murmur3.hash128(item, seed, hash);
+        long combined = hash.h1();
+        for (int i = 0; i < numHashFunctions; i++) {
+            update((combined & Long.MAX_VALUE) % numCounters, 1);
+            combined += hash.h2();
+        }
+    }
+
+    /**
+     * Removes an item that was previously added. Returns false, and changes nothing, if the item is
+     * definitely not present.
+     */
+    public boolean remove(String item) {
+        if (!mightContain(item)) {
+            return false;
+        }
+        Murmur3.Hash128 hash = Murmur3.scratch();
+        Murmur3.hash128(item, seed, hash);
+        long combined = hash.h1();
+        for (int i = 0; i < numHashFunctions; i++) {
+            update((combined & Long.MAX_VALUE) % numCounters, -1);
+            combined += hash.h2();
+        }
+        return true;
+    }
+
+    public boolean mightContain(String item) {
+        Murmur3.Hash128 hash = Murmur3.scratch();
+        Murmur3.hash128(item, seed, hash);
+        long combined = hash.h1();
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (counter((combined & Long.MAX_VALUE) % numCounters) == 0) {
+                return false; // Definitely not in the set
+            }
+            combined += hash.h2();
+        }
+        return true; // Might be in the set
+    }
+
+    /**
+     * False positive rate implied by the fraction of non-zero counters. Scans every counter.
+     */
+    public double expectedFpp() {
+        long nonZero = 0;
+        for (long c = 0; c < numCounters; c++) {
+            if (counter(c) != 0) nonZero++;
+        }
+        return BloomFilterMath.fppFromBitCount(nonZero, numCounters, numHashFunctions);
+    }
+
+    public long memoryBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    public int getNumHashFunctions() {
+        return numHashFunctions;
+    }
+
+    private long counter(long index) {
+        long word = (long) WORDS.getOpaque(words, (int) (index / COUNTERS_PER_WORD));
+        return (word >>> shiftOf(index)) & MAX_COUNT;
+    }
+
+    private void update(long index, int delta) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        int shift = shiftOf(index);
+        while (true) {
+            long word = (long) WORDS.getVolatile(words, wordIndex);
+            long count = (word >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;                         // Saturated counters stay put; never go below zero
+            }
+            long updated = word + ((long) delta << shift);
+            if (WORDS.compareAndSet(words, wordIndex, word, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static int shiftOf(long index) {
+        return (int) (index % COUNTERS_PER_WORD) << 2;
+    }
+}
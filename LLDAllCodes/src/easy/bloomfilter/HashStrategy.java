@@ -0,0 +1,5 @@
+package easy.bloomfilter;
+
+public interface HashStrategy {
+    long hash(String data);
+}
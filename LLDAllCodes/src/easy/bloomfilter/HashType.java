@@ -0,0 +1,6 @@
+package easy.bloomfilter;
+
+public enum HashType {
+    FNV1A,
+    DJB2
+}
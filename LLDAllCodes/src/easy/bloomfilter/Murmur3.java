@@ -0,0 +1,109 @@
+package easy.bloomfilter;
+
+/**
+ * MurmurHash3 x64 128-bit, computed straight over a CharSequence's UTF-16 code units.
+ * Reading chars directly (two bytes each, little-endian) avoids the byte[] copy that getBytes() makes,
+ * and writing into a caller-owned Hash128 avoids allocating a result per call.
+ */
+public final class Murmur3 {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final ThreadLocal<Hash128> SCRATCH = ThreadLocal.withInitial(Hash128::new);
+
+    public static final class Hash128 {
+        long h1;
+        long h2;
+
+        public long h1() { return h1; }
+        public long h2() { return h2; }
+    }
+
+    private Murmur3() {}
+
+    /**
+     * Per-thread result holder for hot paths that must not allocate.
+     */
+    static Hash128 scratch() {
+        return SCRATCH.get();
+    }
+
+    public static void hash128(CharSequence data, long seed, Hash128 out) {
+        int length = data.length();
+        long h1 = seed;
+        long h2 = seed;
+
+        // Body: 8 chars = one 16-byte block
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            long k1 = pack(data, i);
+            long k2 = pack(data, i + 4);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // Tail: up to 7 remaining chars
+        long k1 = 0;
+        long k2 = 0;
+        int remaining = length - i;
+        for (int j = 0; j < remaining; j++) {
+            long c = data.charAt(i + j);
+            if (j < 4) {
+                k1 |= c << (16 * j);
+            } else {
+                k2 |= c << (16 * (j - 4));
+            }
+        }
+        if (remaining > 4) h2 ^= mixK2(k2);
+        if (remaining > 0) h1 ^= mixK1(k1);
+
+        // Finalization
+        long lengthInBytes = 2L * length;
+        h1 ^= lengthInBytes;
+        h2 ^= lengthInBytes;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        out.h1 = h1;
+        out.h2 = h2;
+    }
+
+    private static long pack(CharSequence data, int offset) {
+        return (long) data.charAt(offset)
+                | (long) data.charAt(offset + 1) << 16
+                | (long) data.charAt(offset + 2) << 32
+                | (long) data.charAt(offset + 3) << 48;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
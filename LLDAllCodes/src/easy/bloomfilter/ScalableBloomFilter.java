@@ -0,0 +1,114 @@
+package easy.bloomfilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bloom filter that grows with its key set instead of being sized for the worst case up front.
+ *
+ * It starts with one small filter. When that filter has absorbed its designed number of insertions,
+ * a new filter is chained on that is GROWTH_FACTOR times larger and has a TIGHTENING_RATIO times lower
+ * false positive probability. The per-stage probabilities form a geometric series, so the compound
+ * false positive rate stays below the target no matter how many stages are added.
+ */
+public class ScalableBloomFilter {
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.8;
+
+    private final List<Stage> stages = new ArrayList<>();
+    private final long initialCapacity;
+    private final double firstStageFpp;
+    private final long seed;
+    private long insertions;
+
+    private static final class Stage {
+        final BloomFilter filter;
+        final long capacity;
+        long count;
+
+        Stage(BloomFilter filter, long capacity) {
+            this.filter = filter;
+            this.capacity = capacity;
+        }
+    }
+
+    public ScalableBloomFilter(long initialCapacity, double targetFpp) {
+        this(initialCapacity, targetFpp, 0L);
+    }
+
+    public ScalableBloomFilter(long initialCapacity, double targetFpp, long seed) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive.");
+        }
+        if (targetFpp <= 0 || targetFpp >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1.");
+        }
+        this.initialCapacity = initialCapacity;
+        // Sum over stages of p0 * r^i = p0 / (1 - r), so p0 = target * (1 - r)
+        this.firstStageFpp = targetFpp * (1 - TIGHTENING_RATIO);
+        this.seed = seed;
+        addStage();
+    }
+
+    public synchronized void add(String item) {
+        if (mightContain(item)) {
+            return;                             // Already (probably) present; don't use up capacity
+        }
+        Stage current = stages.get(stages.size() - 1);
+        if (current.count >= current.capacity) {
+            current = addStage();
+        }
+        current.filter.add(item);
+        current.count++;
+        insertions++;
+    }
+
+    public synchronized boolean mightContain(String item) {
+        // Newest stage first: recently added keys are usually the ones being looked up
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            if (stages.get(i).filter.mightContain(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compound false positive rate of all stages, based on how full each one currently is.
+     */
+    public synchronized double expectedFpp() {
+        double allMiss = 1.0;
+        for (Stage stage : stages) {
+            allMiss *= 1 - stage.filter.expectedFpp();
+        }
+        return 1 - allMiss;
+    }
+
+    public synchronized long memoryBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += stage.filter.memoryBytes();
+        }
+        return bytes;
+    }
+
+    public synchronized int getStageCount() {
+        return stages.size();
+    }
+
+    public synchronized long getInsertions() {
+        return insertions;
+    }
+
+    private Stage addStage() {
+        int index = stages.size();
+        long capacity = initialCapacity * (long) Math.pow(GROWTH_FACTOR, index);
+        double fpp = firstStageFpp * Math.pow(TIGHTENING_RATIO, index);
+        long numBits = BloomFilterMath.optimalNumOfBits(capacity, fpp);
+        int numHashFunctions = BloomFilterMath.optimalNumOfHashFunctions(capacity, numBits);
+        // Each stage gets its own seed so that the stages' false positives are independent
+        Stage stage = new Stage(new BloomFilter(numBits, numHashFunctions, null, seed + index), capacity);
+        stages.add(stage);
+        return stage;
+    }
+}
@@ -0,0 +1,9 @@
+package easy.lrucache;
+
+public interface Cache<K, V> {
+    V get(K key);
+
+    void put(K key, V value);
+
+    void remove(K key);
+}
@@ -0,0 +1,6 @@
+package easy.lrucache;
+
+@FunctionalInterface
+public interface CacheLoader<K, V> {
+    V load(K key) throws Exception;
+}
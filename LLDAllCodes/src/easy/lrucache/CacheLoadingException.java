@@ -0,0 +1,9 @@
+package easy.lrucache;
+
+public class CacheLoadingException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public CacheLoadingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,79 @@
+package easy.lrucache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Replays an access trace against several eviction policies and reports their hit ratios.
+ *
+ * Usage: CacheSimulator <capacity> [trace-file ...]
+ * Each line of a trace file is one access; the first whitespace-separated token is the key.
+ * Without trace files a synthetic trace is used: a skewed hot set interrupted by large one-off scans.
+ */
+public class CacheSimulator {
+    public static void main(String[] args) throws IOException {
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        List<String> trace = new ArrayList<>();
+        if (args.length > 1) {
+            for (int i = 1; i < args.length; i++) {
+                readTrace(Path.of(args[i]), trace);
+            }
+        } else {
+            syntheticTrace(capacity, trace);
+        }
+
+        System.out.printf("Replaying %d accesses with capacity %d%n", trace.size(), capacity);
+        simulate("LRU", LRUCache::new, capacity, trace);
+        simulate("W-TinyLFU", TinyLfuCache::new, capacity, trace);
+    }
+
+    private static void simulate(String policy, IntFunction<Cache<String, String>> factory,
+                                 int capacity, List<String> trace) {
+        Cache<String, String> cache = factory.apply(capacity);
+        long hits = 0;
+        for (String key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        System.out.printf("  %-10s hit ratio: %6.2f%% (%d hits, %d misses)%n",
+                policy, 100.0 * hits / trace.size(), hits, trace.size() - hits);
+    }
+
+    private static void readTrace(Path path, List<String> trace) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                int space = line.indexOf(' ');
+                trace.add(space < 0 ? line : line.substring(0, space));
+            }
+        }
+    }
+
+    // Zipf-like hot set of 5x capacity, with a scan of 10x capacity cold keys every 20x capacity accesses
+    private static void syntheticTrace(int capacity, List<String> trace) {
+        Random random = new Random(42);
+        int hotKeys = capacity * 5;
+        int scanKey = 0;
+        for (int phase = 0; phase < 10; phase++) {
+            for (int i = 0; i < capacity * 20; i++) {
+                double u = random.nextDouble();
+                int rank = (int) Math.floor(Math.pow(hotKeys, u));   // log-uniform ranks skew toward small keys
+                trace.add("hot-" + rank);
+            }
+            for (int i = 0; i < capacity * 10; i++) {
+                trace.add("scan-" + scanKey++);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package easy.lrucache;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable point-in-time view of a cache's statistics.
+ */
+public final class CacheStats {
+    /** weightedSize of a cache that does not weigh its entries. */
+    public static final long UNWEIGHTED = -1;
+
+    private static final LatencyHistogram.Snapshot NO_LATENCIES = new LatencyHistogram().snapshot();
+
+    private final long hitCount;
+    private final long missCount;
+    private final long totalLoadTimeNanos;
+    private final LatencyHistogram.Snapshot loadSuccessLatency;
+    private final LatencyHistogram.Snapshot loadFailureLatency;
+    private final Map<RemovalCause, Long> evictionCounts;
+    private final long estimatedSize;
+    private final long weightedSize;
+
+    public CacheStats(long hitCount, long missCount, long totalLoadTimeNanos,
+                      LatencyHistogram.Snapshot loadSuccessLatency, LatencyHistogram.Snapshot loadFailureLatency,
+                      Map<RemovalCause, Long> evictionCounts, long estimatedSize, long weightedSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.loadSuccessLatency = loadSuccessLatency;
+        this.loadFailureLatency = loadFailureLatency;
+        this.evictionCounts = Collections.unmodifiableMap(new EnumMap<>(evictionCounts));
+        this.estimatedSize = estimatedSize;
+        this.weightedSize = weightedSize;
+    }
+
+    static CacheStats empty(long estimatedSize, long weightedSize) {
+        return new CacheStats(0, 0, 0, NO_LATENCIES, NO_LATENCIES,
+                new EnumMap<>(RemovalCause.class), estimatedSize, weightedSize);
+    }
+
+    public long hitCount() { return hitCount; }
+    public long missCount() { return missCount; }
+    public long requestCount() { return hitCount + missCount; }
+    public long loadSuccessCount() { return loadSuccessLatency.count(); }
+    public long loadFailureCount() { return loadFailureLatency.count(); }
+    public long totalLoadTimeNanos() { return totalLoadTimeNanos; }
+    public LatencyHistogram.Snapshot loadSuccessLatency() { return loadSuccessLatency; }
+    public LatencyHistogram.Snapshot loadFailureLatency() { return loadFailureLatency; }
+    public long estimatedSize() { return estimatedSize; }
+    /** Total weight of the entries (bytes for OffHeapCache), or UNWEIGHTED if the cache has no weigher. */
+    public long weightedSize() { return weightedSize; }
+
+    public double hitRatio() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public double missRatio() {
+        long requests = requestCount();
+        return requests == 0 ? 0.0 : (double) missCount / requests;
+    }
+
+    public long evictionCount(RemovalCause cause) {
+        return evictionCounts.getOrDefault(cause, 0L);
+    }
+
+    /**
+     * Entries the cache removed on its own (SIZE and EXPIRED). Explicit removals and replacements are not
+     * evictions; see evictionCount(RemovalCause) for those.
+     */
+    public long evictionCount() {
+        return evictionCount(RemovalCause.SIZE) + evictionCount(RemovalCause.EXPIRED);
+    }
+
+    public double averageLoadPenaltyNanos() {
+        long loads = loadSuccessCount() + loadFailureCount();
+        return loads == 0 ? 0.0 : (double) totalLoadTimeNanos / loads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hitRatio=%.4f, hits=%d, misses=%d, evictions=%s, loadSuccess=%s, "
+                        + "loadFailure=%s, size=%d%s}",
+                hitRatio(), hitCount, missCount, evictionCounts, loadSuccessLatency, loadFailureLatency,
+                estimatedSize, weightedSize == UNWEIGHTED ? "" : ", weightedSize=" + weightedSize);
+    }
+}
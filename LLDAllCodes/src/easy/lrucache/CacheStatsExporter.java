@@ -0,0 +1,37 @@
+package easy.lrucache;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Periodically pushes stats snapshots to a sink (a metrics registry, a log line, a file...).
+ */
+public class CacheStatsExporter implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+
+    public CacheStatsExporter(Supplier<CacheStats> source, Duration interval, Consumer<CacheStats> sink) {
+        // Daemon thread: exporting metrics should never keep the JVM alive
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-stats-exporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                sink.accept(source.get());
+            } catch (RuntimeException e) {
+                // A failing sink must not cancel future exports
+                System.err.println("Failed to export cache stats: " + e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,240 @@
+package easy.lrucache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent, approximately-LRU cache.
+ *
+ * The key space is split into segments. Each segment owns a ConcurrentHashMap for lookups and its own
+ * recency list guarded by an eviction lock. Reads never take that lock: a hit is recorded into a lossy
+ * per-thread read buffer and replayed onto the recency list in batches by whichever thread wins a tryLock.
+ * Writes take the segment lock, drain pending reads and evict from the tail of that segment.
+ *
+ * Eviction is LRU within a segment and approximately LRU across the whole cache.
+ * Statistics are off unless a StatsCounter is supplied.
+ */
+public class ConcurrentLRUCache<K, V> implements Cache<K, V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final StatsCounter statsCounter;
+
+    public ConcurrentLRUCache(int capacity) {
+        this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentLRUCache(int capacity, int concurrencyLevel) {
+        this(capacity, concurrencyLevel, StatsCounter.disabled());
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLRUCache(int capacity, int concurrencyLevel, StatsCounter statsCounter) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive.");
+        }
+        // Never create more segments than entries, otherwise some segments would have zero capacity
+        int segmentCount = ceilingPowerOfTwo(Math.min(concurrencyLevel, capacity));
+        if (segmentCount > capacity) {
+            segmentCount >>>= 1;
+        }
+        this.statsCounter = statsCounter;
+        int readStripes = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        int baseCapacity = capacity / segmentCount;
+        int remainder = capacity % segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(baseCapacity + (i < remainder ? 1 : 0), readStripes, statsCounter);
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        V value = segmentFor(key).get(key);
+        if (value != null) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordMisses(1);
+        }
+        return value;
+    }
+
+    // Lookup that leaves hit/miss accounting to a wrapping cache
+    V getQuietly(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        segmentFor(key).put(key, value, true);
+    }
+
+    // Put for a wrapping cache's own reloads, which overwrite without counting a REPLACED removal
+    void putLoaded(K key, V value) {
+        segmentFor(key).put(key, value, false);
+    }
+
+    @Override
+    public void remove(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes the entry only if it is still mapped to the given value (compared by identity).
+     */
+    public boolean remove(K key, V expectedValue) {
+        return segmentFor(key).remove(key, expectedValue, RemovalCause.EXPLICIT);
+    }
+
+    boolean expire(K key, V expectedValue) {
+        return segmentFor(key).remove(key, expectedValue, RemovalCause.EXPIRED);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.map.size();
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        return statsCounter.snapshot(size(), CacheStats.UNWEIGHTED);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        return segments[spread(key.hashCode()) & segmentMask];
+    }
+
+    // Mixes the high bits in so that keys with poor hashCodes still spread across segments
+    private static int spread(int h) {
+        h ^= (h >>> 16);
+        h *= 0x45d9f3b;
+        return h ^ (h >>> 16);
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+
+    private static final class Segment<K, V> {
+        private final int capacity;
+        private final ConcurrentHashMap<K, Node<K, V>> map;
+        private final DoublyLinkedList<K, V> dll;              // Guarded by evictionLock
+        private final ReentrantLock evictionLock = new ReentrantLock();
+        private final ReadBuffer<Node<K, V>>[] readBuffers;
+        private final int readBufferMask;
+        private final StatsCounter statsCounter;
+
+        @SuppressWarnings("unchecked")
+        Segment(int capacity, int readStripes, StatsCounter statsCounter) {
+            this.capacity = capacity;
+            this.statsCounter = statsCounter;
+            this.map = new ConcurrentHashMap<>();
+            this.dll = new DoublyLinkedList<>();
+            this.readBuffers = (ReadBuffer<Node<K, V>>[]) new ReadBuffer<?>[readStripes];
+            for (int i = 0; i < readStripes; i++) {
+                readBuffers[i] = new ReadBuffer<>();
+            }
+            this.readBufferMask = readStripes - 1;
+        }
+
+        V get(K key) {
+            Node<K, V> node = map.get(key);
+            if (node == null) return null;
+            recordRead(node);
+            return node.value;
+        }
+
+        void put(K key, V value, boolean recordReplaced) {
+            evictionLock.lock();
+            try {
+                drainReadBuffers();
+                Node<K, V> node = map.get(key);
+                if (node != null) {
+                    node.value = value;
+                    dll.moveToFront(node);
+                    if (recordReplaced) {
+                        statsCounter.recordEviction(RemovalCause.REPLACED);
+                    }
+                    return;
+                }
+                if (map.size() >= capacity) {
+                    Node<K, V> lru = dll.removeLast();
+                    if (lru != null) {
+                        map.remove(lru.key, lru);
+                        statsCounter.recordEviction(RemovalCause.SIZE);
+                    }
+                }
+                Node<K, V> newNode = new Node<>(key, value);
+                dll.addFirst(newNode);
+                map.put(key, newNode);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+
+        void remove(K key) {
+            evictionLock.lock();
+            try {
+                Node<K, V> node = map.remove(key);
+                if (node == null) return;
+                if (dll.isLinked(node)) {
+                    dll.remove(node);
+                }
+                statsCounter.recordEviction(RemovalCause.EXPLICIT);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+
+        boolean remove(K key, V expectedValue, RemovalCause cause) {
+            evictionLock.lock();
+            try {
+                Node<K, V> node = map.get(key);
+                if (node == null || node.value != expectedValue) return false;
+                map.remove(key, node);
+                if (dll.isLinked(node)) {
+                    dll.remove(node);
+                }
+                statsCounter.recordEviction(cause);
+                return true;
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+
+        private void recordRead(Node<K, V> node) {
+            // Threads are spread across stripes so that readers rarely CAS on the same counter
+            int stripe = (int) Thread.currentThread().getId() & readBufferMask;
+            boolean shouldDrain = readBuffers[stripe].offer(node);
+            if (shouldDrain && evictionLock.tryLock()) {
+                try {
+                    drainReadBuffers();
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+        }
+
+        // Caller must hold evictionLock
+        private void drainReadBuffers() {
+            for (ReadBuffer<Node<K, V>> buffer : readBuffers) {
+                buffer.drainTo(this::applyRead);
+            }
+        }
+
+        private void applyRead(Node<K, V> node) {
+            // The node may have been evicted or removed after the read was recorded
+            if (dll.isLinked(node)) {
+                dll.moveToFront(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package easy.lrucache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatsCounter backed by LongAdders, which stripe their cells across threads so that
+ * recording on the hot path never contends on a single cache line.
+ */
+public class ConcurrentStatsCounter implements StatsCounter {
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LatencyHistogram loadSuccessLatency = new LatencyHistogram();
+    private final LatencyHistogram loadFailureLatency = new LatencyHistogram();
+    private final LongAdder[] evictionCounts = new LongAdder[RemovalCause.values().length];
+
+    public ConcurrentStatsCounter() {
+        for (int i = 0; i < evictionCounts.length; i++) {
+            evictionCounts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void recordHits(int count) {
+        hitCount.add(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        missCount.add(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTimeNanos) {
+        loadSuccessLatency.record(loadTimeNanos);
+        totalLoadTime.add(loadTimeNanos);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTimeNanos) {
+        loadFailureLatency.record(loadTimeNanos);
+        totalLoadTime.add(loadTimeNanos);
+    }
+
+    @Override
+    public void recordEviction(RemovalCause cause) {
+        evictionCounts[cause.ordinal()].increment();
+    }
+
+    @Override
+    public CacheStats snapshot(long estimatedSize, long weightedSize) {
+        Map<RemovalCause, Long> evictions = new EnumMap<>(RemovalCause.class);
+        for (RemovalCause cause : RemovalCause.values()) {
+            evictions.put(cause, evictionCounts[cause.ordinal()].sum());
+        }
+        return new CacheStats(hitCount.sum(), missCount.sum(), totalLoadTime.sum(),
+                loadSuccessLatency.snapshot(), loadFailureLatency.snapshot(),
+                evictions, estimatedSize, weightedSize);
+    }
+}
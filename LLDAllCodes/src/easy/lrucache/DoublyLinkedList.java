@@ -21,6 +21,12 @@ public class DoublyLinkedList<K, V> {
     public void remove(Node<K, V> node) {
         node.prev.next = node.next;
         node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    public boolean isLinked(Node<K, V> node) {
+        return node.prev != null;
     }
 
     public void moveToFront(Node<K, V> node) {
@@ -28,6 +34,10 @@ public class DoublyLinkedList<K, V> {
         addFirst(node);
     }
 
+    public Node<K, V> peekLast() {
+        return tail.prev == head ? null : tail.prev;
+    }
+
     public Node<K, V> removeLast() {
         if (tail.prev == head) return null;
         Node<K, V> last = tail.prev;
@@ -3,7 +3,7 @@ package easy.lrucache;
 import java.util.HashMap;
 import java.util.Map;
 
-public class LRUCache<K, V> {
+public class LRUCache<K, V> implements Cache<K, V> {
     private final int capacity;
     private final Map<K, Node<K, V>> map;
     private final DoublyLinkedList<K, V> dll;
@@ -14,6 +14,7 @@ public class LRUCache<K, V> {
         this.dll = new DoublyLinkedList<>();
     }
 
+    @Override
     public synchronized V get(K key) {
         if (!map.containsKey(key)) return null;
         Node<K, V> node = map.get(key);
@@ -21,6 +22,7 @@ public class LRUCache<K, V> {
         return node.value;
     }
 
+    @Override
     public synchronized void put(K key, V value) {
         if (map.containsKey(key)) {
             Node<K, V> node = map.get(key);
@@ -37,6 +39,7 @@ public class LRUCache<K, V> {
         }
     }
 
+    @Override
     public synchronized void remove(K key) {
         if (!map.containsKey(key)) return;
         Node<K, V> node = map.get(key);
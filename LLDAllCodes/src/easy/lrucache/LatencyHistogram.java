@@ -0,0 +1,72 @@
+package easy.lrucache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two nanosecond buckets.
+ * Bucket i counts samples in [2^(i-1), 2^i) ns, which is coarse but plenty to tell 50us loads from 50ms ones.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        counts[bucketOf(Math.max(0, nanos))].increment();
+    }
+
+    public Snapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return new Snapshot(snapshot);
+    }
+
+    private static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+        }
+
+        public long count() {
+            long total = 0;
+            for (long c : counts) total += c;
+            return total;
+        }
+
+        /**
+         * Upper bound, in nanoseconds, of the bucket containing the given percentile (0-100).
+         */
+        public long percentileNanos(double percentile) {
+            long total = count();
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : 1L << i);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{count=%d, p50<=%dus, p99<=%dus}",
+                    count(), percentileNanos(50) / 1_000, percentileNanos(99) / 1_000);
+        }
+    }
+}
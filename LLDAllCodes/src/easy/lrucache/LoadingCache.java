@@ -0,0 +1,260 @@
+package easy.lrucache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Self-populating cache built on ConcurrentLRUCache.
+ *
+ * - get() loads missing or expired keys through the CacheLoader. Concurrent misses for the same key
+ *   share a single load (single-flight), so a hot key never stampedes the backing store.
+ * - Every entry carries its own expiry time. Expired entries are found by a TimerWheel that is advanced
+ *   by normal cache traffic instead of by a background sweep.
+ * - An entry read within the refresh-ahead window before it expires is reloaded asynchronously while
+ *   the current value keeps being served, so hot keys do not take a synchronous miss.
+ * - recordStats() turns on hit/miss, eviction and load-latency statistics; see stats().
+ */
+public class LoadingCache<K, V> implements Cache<K, V> {
+    private final ConcurrentLRUCache<K, TimedValue<K, V>> cache;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final TimerWheel<TimedValue<K, V>> timerWheel;
+    private final CacheLoader<K, V> loader;
+    private final StatsCounter statsCounter;
+    private final Executor refreshExecutor;
+    private final long expireAfterWriteNanos;
+    private final long refreshAheadNanos;
+
+    private static final class TimedValue<K, V> implements TimerWheel.Timed {
+        final K key;
+        final V value;
+        final long expiresAtNanos;
+        final long refreshAtNanos;
+
+        TimedValue(K key, V value, long expiresAtNanos, long refreshAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.refreshAtNanos = refreshAtNanos;
+        }
+
+        @Override
+        public long expiresAtNanos() {
+            return expiresAtNanos;
+        }
+    }
+
+    private LoadingCache(Builder<K, V> builder) {
+        this.statsCounter = builder.statsCounter;
+        this.cache = new ConcurrentLRUCache<>(builder.capacity, builder.concurrencyLevel, statsCounter);
+        this.loader = builder.loader;
+        this.refreshExecutor = builder.refreshExecutor;
+        this.expireAfterWriteNanos = builder.expireAfterWrite.toNanos();
+        this.refreshAheadNanos = builder.refreshAhead.toNanos();
+        // Aim for roughly 64 ticks per TTL so that expired entries linger for at most ~3% (two ticks) of their lifetime
+        long tickNanos = Math.max(1_000_000L, expireAfterWriteNanos / 64);
+        this.timerWheel = new TimerWheel<>(128, tickNanos, System.nanoTime());
+    }
+
+    /**
+     * Returns the cached value, loading it if it is absent or expired.
+     */
+    @Override
+    public V get(K key) {
+        long now = System.nanoTime();
+        expireEntries(now);
+        TimedValue<K, V> entry = cache.getQuietly(key);
+        if (entry != null && now < entry.expiresAtNanos) {
+            statsCounter.recordHits(1);
+            if (now >= entry.refreshAtNanos) {
+                refreshAsync(key);
+            }
+            return entry.value;
+        }
+        statsCounter.recordMisses(1);
+        return load(key);
+    }
+
+    /**
+     * Returns the cached value without loading, or null if it is absent or expired.
+     */
+    public V getIfPresent(K key) {
+        long now = System.nanoTime();
+        expireEntries(now);
+        TimedValue<K, V> entry = cache.getQuietly(key);
+        if (entry != null && now < entry.expiresAtNanos) {
+            statsCounter.recordHits(1);
+            return entry.value;
+        }
+        statsCounter.recordMisses(1);
+        return null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(key, value, expireAfterWriteNanos, true);
+    }
+
+    /**
+     * Stores a value that expires after its own time-to-live instead of the cache default.
+     */
+    public void put(K key, V value, Duration timeToLive) {
+        put(key, value, timeToLive.toNanos(), true);
+    }
+
+    @Override
+    public void remove(K key) {
+        cache.remove(key);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Loads and refreshes pass recordReplaced = false: swapping in a reloaded value is not a removal
+    private void put(K key, V value, long timeToLiveNanos, boolean recordReplaced) {
+        long now = System.nanoTime();
+        long expiresAt = now + timeToLiveNanos;
+        long refreshAt = expiresAt - Math.min(refreshAheadNanos, timeToLiveNanos);
+        TimedValue<K, V> entry = new TimedValue<>(key, value, expiresAt, refreshAt);
+        if (recordReplaced) {
+            cache.put(key, entry);
+        } else {
+            cache.putLoaded(key, entry);
+        }
+        timerWheel.schedule(entry);
+        expireEntries(now);
+    }
+
+    private V load(K key) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            // Someone else is already loading this key; wait for their result
+            return join(key, existing);
+        }
+        runLoad(key, future);
+        return join(key, future);
+    }
+
+    private void refreshAsync(K key) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, future) != null) {
+            return;                             // A load or refresh is already running
+        }
+        try {
+            refreshExecutor.execute(() -> runLoad(key, future));
+        } catch (RuntimeException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void runLoad(K key, CompletableFuture<V> future) {
+        long start = System.nanoTime();
+        try {
+            V value = loader.load(key);
+            if (value == null) {
+                throw new IllegalStateException("CacheLoader returned null for key " + key);
+            }
+            statsCounter.recordLoadSuccess(System.nanoTime() - start);
+            put(key, value, expireAfterWriteNanos, false);
+            future.complete(value);
+        } catch (Throwable e) {
+            // Errors too: every thread joined on the future would otherwise wait forever
+            statsCounter.recordLoadFailure(System.nanoTime() - start);
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V join(K key, CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new CacheLoadingException("Failed to load key " + key, cause);
+        }
+    }
+
+    private void expireEntries(long now) {
+        timerWheel.advance(now, entry -> cache.expire(entry.key, entry));
+    }
+
+    public static class Builder<K, V> {
+        private int capacity = 10_000;
+        private int concurrencyLevel = 16;
+        private StatsCounter statsCounter = StatsCounter.disabled();
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        private Duration refreshAhead = Duration.ZERO;
+        private Executor refreshExecutor = ForkJoinPool.commonPool();
+        private CacheLoader<K, V> loader;
+
+        public Builder<K, V> withCapacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive.");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder<K, V> withConcurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel <= 0) {
+                throw new IllegalArgumentException("Concurrency level must be positive.");
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        public Builder<K, V> recordStats() {
+            this.statsCounter = new ConcurrentStatsCounter();
+            return this;
+        }
+
+        public Builder<K, V> withExpireAfterWrite(Duration expireAfterWrite) {
+            if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+                throw new IllegalArgumentException("Expiry must be positive.");
+            }
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        /**
+         * Reload entries asynchronously when they are read within this window before they expire.
+         */
+        public Builder<K, V> withRefreshAhead(Duration refreshAhead) {
+            if (refreshAhead.isNegative()) {
+                throw new IllegalArgumentException("Refresh-ahead window must not be negative.");
+            }
+            this.refreshAhead = refreshAhead;
+            return this;
+        }
+
+        public Builder<K, V> withRefreshExecutor(Executor refreshExecutor) {
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        public Builder<K, V> withLoader(CacheLoader<K, V> loader) {
+            this.loader = loader;
+            return this;
+        }
+
+        public LoadingCache<K, V> build() {
+            if (loader == null || refreshExecutor == null) {
+                throw new IllegalStateException("Must set a loader and a refresh executor.");
+            }
+            if (refreshAhead.compareTo(expireAfterWrite) >= 0) {
+                throw new IllegalStateException("Refresh-ahead window must be shorter than the expiry.");
+            }
+            return new LoadingCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package easy.lrucache;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash index from a 64-bit key hash to a 64-bit address, stored in two primitive arrays.
+ * Uses linear probing with backward-shift deletion, so there are no tombstones to clean up.
+ * Address 0 marks an empty slot; callers must never store 0 as an address.
+ * Not thread-safe: OffHeapCache guards it with its lock.
+ */
+class LongIndex {
+    static final long NOT_FOUND = 0L;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    private long[] hashes;
+    private long[] addresses;
+    private int mask;
+    private int size;
+
+    LongIndex(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedEntries / MAX_LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    long get(long hash) {
+        for (int slot = slotOf(hash); ; slot = (slot + 1) & mask) {
+            long address = addresses[slot];
+            if (address == NOT_FOUND) return NOT_FOUND;
+            if (hashes[slot] == hash) return address;
+        }
+    }
+
+    /**
+     * Maps hash to address. Returns the previous address, or NOT_FOUND.
+     */
+    long put(long hash, long address) {
+        if (size + 1 > (int) (addresses.length * MAX_LOAD_FACTOR)) {
+            resize();
+        }
+        for (int slot = slotOf(hash); ; slot = (slot + 1) & mask) {
+            long existing = addresses[slot];
+            if (existing == NOT_FOUND) {
+                hashes[slot] = hash;
+                addresses[slot] = address;
+                size++;
+                return NOT_FOUND;
+            }
+            if (hashes[slot] == hash) {
+                addresses[slot] = address;
+                return existing;
+            }
+        }
+    }
+
+    /**
+     * Removes hash only if it still maps to the given address. Returns true if it was removed.
+     */
+    boolean remove(long hash, long address) {
+        for (int slot = slotOf(hash); ; slot = (slot + 1) & mask) {
+            long existing = addresses[slot];
+            if (existing == NOT_FOUND) return false;
+            if (hashes[slot] == hash) {
+                if (existing != address) return false;
+                deleteSlot(slot);
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return 2L * Long.BYTES * addresses.length;
+    }
+
+    void clear() {
+        Arrays.fill(addresses, NOT_FOUND);
+        size = 0;
+    }
+
+    // Shift later entries of the same probe run back so lookups never stop early at the hole
+    private void deleteSlot(int hole) {
+        size--;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (addresses[slot] == NOT_FOUND) break;
+            int home = slotOf(hashes[slot]);
+            boolean between = hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot);
+            if (!between) {
+                hashes[hole] = hashes[slot];
+                addresses[hole] = addresses[slot];
+                hole = slot;
+            }
+        }
+        addresses[hole] = NOT_FOUND;
+    }
+
+    private void resize() {
+        long[] oldHashes = hashes;
+        long[] oldAddresses = addresses;
+        allocate(oldAddresses.length << 1);
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != NOT_FOUND) {
+                put(oldHashes[i], oldAddresses[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.hashes = new long[capacity];
+        this.addresses = new long[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    private int slotOf(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
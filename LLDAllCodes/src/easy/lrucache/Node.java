@@ -2,7 +2,7 @@ package easy.lrucache;
 
 public class Node<K, V> {
     K key;
-    V value;
+    volatile V value;
     Node<K, V> prev, next;
 
     Node(K key, V value) {
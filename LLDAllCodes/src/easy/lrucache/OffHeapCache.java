@@ -0,0 +1,298 @@
+package easy.lrucache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Byte-bounded cache that keeps keys and values outside the Java heap.
+ *
+ * Entries are serialized into fixed-size slabs of direct memory and appended log-style to the current
+ * slab. The only on-heap state is a LongIndex of primitive longs (key hash -> slab address), so a multi-GB
+ * cache adds no per-entry objects for the GC to trace.
+ *
+ * Capacity is measured in bytes. When the writer wraps around to a slab that is still in use, that whole
+ * slab is evicted; the slabs therefore age in FIFO order. Entries read from the next slab due for eviction
+ * are copied forward to the current slab, which gives hot entries a second chance and keeps the overall
+ * eviction order close to LRU.
+ *
+ * The slab count is capacityBytes / slabBytes rounded down, so the cache never allocates more than
+ * capacityBytes; at least two slabs are required, one to write into and one to evict.
+ *
+ * close() drops the slabs so their direct memory can be reclaimed; the cache is unusable afterwards.
+ *
+ * Record layout inside a slab: [long keyHash][int keyLength][int valueLength][key bytes][value bytes]
+ */
+public class OffHeapCache<K, V> implements Cache<K, V>, AutoCloseable {
+    private static final int HEADER_BYTES = Long.BYTES + 2 * Integer.BYTES;
+    private static final int DEFAULT_SLAB_BYTES = 64 * 1024 * 1024;
+    private static final int MIN_SLAB_BYTES = 4 * 1024;
+
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final ByteBuffer[] slabs;
+    private final int[] slabLimits;            // Bytes written into each slab
+    private final int slabBytes;
+    private final LongIndex index;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final StatsCounter statsCounter;
+
+    private int writeSlab;
+    private long weightedSize;                 // Bytes used by live records
+    private boolean closed;
+
+    /**
+     * Picks a slab size of capacityBytes / 8, between 4 KB and 64 MB. capacityBytes must be at least 8 KB.
+     */
+    public OffHeapCache(long capacityBytes, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        this(capacityBytes, (int) Math.max(MIN_SLAB_BYTES, Math.min(DEFAULT_SLAB_BYTES, capacityBytes / 8)),
+                keySerializer, valueSerializer);
+    }
+
+    public OffHeapCache(long capacityBytes, int slabBytes, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        this(capacityBytes, slabBytes, keySerializer, valueSerializer, StatsCounter.disabled());
+    }
+
+    public OffHeapCache(long capacityBytes, int slabBytes, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                        StatsCounter statsCounter) {
+        if (capacityBytes <= 0 || slabBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Capacity and slab size must be positive.");
+        }
+        long slabCount = capacityBytes / slabBytes;
+        if (slabCount < 2) {
+            // Need a slab to evict into while writing
+            throw new IllegalArgumentException("Capacity of " + capacityBytes + " bytes must hold at least two slabs of "
+                    + slabBytes + " bytes.");
+        }
+        if (slabCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many slabs; use a larger slab size.");
+        }
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.slabBytes = slabBytes;
+        this.statsCounter = statsCounter;
+        this.slabs = new ByteBuffer[(int) slabCount];
+        this.slabLimits = new int[slabs.length];
+        this.index = new LongIndex(1024);
+        this.slabs[0] = ByteBuffer.allocateDirect(slabBytes);
+    }
+
+    @Override
+    public V get(K key) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        long hash = hash(keyBytes);
+        lock.lock();
+        try {
+            ensureOpen();
+            long address = index.get(hash);
+            if (address == LongIndex.NOT_FOUND || !keyMatches(slabs[slabOf(address)], offsetOf(address), keyBytes)) {
+                statsCounter.recordMisses(1);
+                return null;
+            }
+            statsCounter.recordHits(1);
+            ByteBuffer slab = slabs[slabOf(address)];
+            int offset = offsetOf(address);
+
+            byte[] valueBytes = new byte[slab.getInt(offset + Long.BYTES + Integer.BYTES)];
+            slab.get(offset + HEADER_BYTES + keyBytes.length, valueBytes);
+            if (slabOf(address) == nextSlab(writeSlab)) {
+                // About to be evicted with its slab; copy it forward instead
+                write(hash, keyBytes, valueBytes, false);
+            }
+            return valueSerializer.deserialize(valueBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        byte[] valueBytes = valueSerializer.serialize(value);
+        if (HEADER_BYTES + keyBytes.length + valueBytes.length > slabBytes) {
+            throw new IllegalArgumentException("Entry of " + (keyBytes.length + valueBytes.length)
+                    + " bytes does not fit in a slab of " + slabBytes + " bytes.");
+        }
+        long hash = hash(keyBytes);
+        lock.lock();
+        try {
+            ensureOpen();
+            write(hash, keyBytes, valueBytes, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        long hash = hash(keyBytes);
+        lock.lock();
+        try {
+            ensureOpen();
+            long address = index.get(hash);
+            if (address == LongIndex.NOT_FOUND) return;
+            if (!keyMatches(slabs[slabOf(address)], offsetOf(address), keyBytes)) return;
+            index.remove(hash, address);
+            weightedSize -= recordBytes(address);
+            statsCounter.recordEviction(RemovalCause.EXPLICIT);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bytes held by live entries, including record headers.
+     */
+    public long weightedSize() {
+        lock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long capacityBytes() {
+        return (long) slabs.length * slabBytes;
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return statsCounter.snapshot(index.size(), weightedSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every slab so the direct memory can be reclaimed. Later get, put and remove calls throw
+     * IllegalStateException. Idempotent.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            Arrays.fill(slabs, null);
+            Arrays.fill(slabLimits, 0);
+            index.clear();
+            weightedSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller must hold the lock
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Cache is closed.");
+        }
+    }
+
+    // Caller must hold the lock
+    private void write(long hash, byte[] keyBytes, byte[] valueBytes, boolean userWrite) {
+        int length = HEADER_BYTES + keyBytes.length + valueBytes.length;
+        if (slabLimits[writeSlab] + length > slabBytes) {
+            advanceSlab();
+        }
+        ByteBuffer slab = slabs[writeSlab];
+        int offset = slabLimits[writeSlab];
+        slab.putLong(offset, hash);
+        slab.putInt(offset + Long.BYTES, keyBytes.length);
+        slab.putInt(offset + Long.BYTES + Integer.BYTES, valueBytes.length);
+        slab.put(offset + HEADER_BYTES, keyBytes);
+        slab.put(offset + HEADER_BYTES + keyBytes.length, valueBytes);
+        slabLimits[writeSlab] = offset + length;
+
+        // A different key with the same 64-bit hash is simply displaced, which a cache is allowed to do
+        long previous = index.put(hash, addressOf(writeSlab, offset));
+        if (previous != LongIndex.NOT_FOUND) {
+            weightedSize -= recordBytes(previous);
+            if (userWrite) {
+                statsCounter.recordEviction(RemovalCause.REPLACED);
+            }
+        }
+        weightedSize += length;
+    }
+
+    private void advanceSlab() {
+        writeSlab = nextSlab(writeSlab);
+        if (slabs[writeSlab] == null) {
+            slabs[writeSlab] = ByteBuffer.allocateDirect(slabBytes);
+        } else {
+            evictSlab(writeSlab);
+        }
+    }
+
+    // Drops every record in the slab that the index still points at
+    private void evictSlab(int slabId) {
+        ByteBuffer slab = slabs[slabId];
+        int limit = slabLimits[slabId];
+        int offset = 0;
+        while (offset < limit) {
+            long hash = slab.getLong(offset);
+            int length = HEADER_BYTES + slab.getInt(offset + Long.BYTES) + slab.getInt(offset + Long.BYTES + Integer.BYTES);
+            if (index.remove(hash, addressOf(slabId, offset))) {
+                weightedSize -= length;
+                statsCounter.recordEviction(RemovalCause.SIZE);
+            }
+            offset += length;
+        }
+        slabLimits[slabId] = 0;
+    }
+
+    private boolean keyMatches(ByteBuffer slab, int offset, byte[] keyBytes) {
+        if (slab.getInt(offset + Long.BYTES) != keyBytes.length) return false;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (slab.get(offset + HEADER_BYTES + i) != keyBytes[i]) return false;
+        }
+        return true;
+    }
+
+    private int recordBytes(long address) {
+        ByteBuffer slab = slabs[slabOf(address)];
+        int offset = offsetOf(address);
+        return HEADER_BYTES + slab.getInt(offset + Long.BYTES) + slab.getInt(offset + Long.BYTES + Integer.BYTES);
+    }
+
+    private int nextSlab(int slabId) {
+        return slabId + 1 == slabs.length ? 0 : slabId + 1;
+    }
+
+    // Address = (slab + 1) << 32 | offset, so that no valid address is ever 0
+    private static long addressOf(int slabId, int offset) {
+        return ((long) (slabId + 1) << 32) | (offset & 0xffffffffL);
+    }
+
+    private static int slabOf(long address) {
+        return (int) (address >>> 32) - 1;
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    // FNV-1a followed by a 64-bit finalizer so that the low bits used by the index are well mixed
+    private static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,56 @@
+package easy.lrucache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lossy ring buffer that records cache hits.
+ * Producers never block: if the buffer is full or the slot is contended, the read is simply dropped.
+ * Losing a few recency updates only makes the eviction order slightly less precise.
+ * Drained by a single thread that holds the owning segment's eviction lock.
+ */
+class ReadBuffer<E> {
+    static final int SIZE = 16;               // Must be a power of two
+    static final int DRAIN_THRESHOLD = SIZE / 2;
+    private static final int MASK = SIZE - 1;
+
+    private final AtomicReferenceArray<E> slots = new AtomicReferenceArray<>(SIZE);
+    private final AtomicLong writeCounter = new AtomicLong();
+    private volatile long readCounter;        // Only written by the draining thread
+
+    /**
+     * Records an element. Returns true if the buffer is full enough that it should be drained.
+     */
+    boolean offer(E element) {
+        long head = readCounter;
+        long tail = writeCounter.get();
+        long size = tail - head;
+        if (size >= SIZE) {
+            return true;                      // Full: drop the read, ask for a drain
+        }
+        if (writeCounter.compareAndSet(tail, tail + 1)) {
+            slots.lazySet((int) (tail & MASK), element);
+        }
+        // A failed CAS means another reader won the slot; dropping is fine
+        return size + 1 >= DRAIN_THRESHOLD;
+    }
+
+    /**
+     * Replays every published element into the consumer. Caller must hold the eviction lock.
+     */
+    void drainTo(Consumer<E> consumer) {
+        long head = readCounter;
+        long tail = writeCounter.get();
+        for (; head < tail; head++) {
+            int index = (int) (head & MASK);
+            E element = slots.get(index);
+            if (element == null) {
+                break;                        // Slot claimed but not yet published; pick it up next drain
+            }
+            slots.lazySet(index, null);
+            consumer.accept(element);
+        }
+        readCounter = head;
+    }
+}
@@ -0,0 +1,8 @@
+package easy.lrucache;
+
+public enum RemovalCause {
+    EXPLICIT,   // Removed by the caller
+    REPLACED,   // Value overwritten by a put for the same key
+    SIZE,       // Evicted to stay within capacity
+    EXPIRED     // Time-to-live elapsed
+}
@@ -0,0 +1,50 @@
+package easy.lrucache;
+
+/**
+ * Receives cache events. Caches default to disabled(), which costs nothing beyond a virtual call;
+ * pass a ConcurrentStatsCounter to start recording.
+ */
+public interface StatsCounter {
+    void recordHits(int count);
+
+    void recordMisses(int count);
+
+    void recordLoadSuccess(long loadTimeNanos);
+
+    void recordLoadFailure(long loadTimeNanos);
+
+    void recordEviction(RemovalCause cause);
+
+    /**
+     * Takes a snapshot of the counters, combined with the size figures that only the cache itself knows.
+     */
+    CacheStats snapshot(long estimatedSize, long weightedSize);
+
+    static StatsCounter disabled() {
+        return DisabledStatsCounter.INSTANCE;
+    }
+
+    enum DisabledStatsCounter implements StatsCounter {
+        INSTANCE;
+
+        @Override
+        public void recordHits(int count) {}
+
+        @Override
+        public void recordMisses(int count) {}
+
+        @Override
+        public void recordLoadSuccess(long loadTimeNanos) {}
+
+        @Override
+        public void recordLoadFailure(long loadTimeNanos) {}
+
+        @Override
+        public void recordEviction(RemovalCause cause) {}
+
+        @Override
+        public CacheStats snapshot(long estimatedSize, long weightedSize) {
+            return CacheStats.empty(estimatedSize, weightedSize);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package easy.lrucache;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel that finds expired cache entries without scanning the whole cache.
+ *
+ * Each entry is dropped into the bucket for the tick in which it expires. Callers advance the wheel
+ * as a side effect of normal cache traffic; only the buckets whose ticks have passed are visited,
+ * so the cleanup cost is amortized across operations. Entries more than one revolution away are
+ * simply put back when their bucket comes round early. The wheel is only a cleanup aid: readers still
+ * check the expiry time themselves, so an entry that misses its bucket is never served stale.
+ */
+class TimerWheel<E extends TimerWheel.Timed> {
+    interface Timed {
+        long expiresAtNanos();
+    }
+
+    private final AtomicReferenceArray<ConcurrentLinkedQueue<E>> buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    private long currentTick;                   // Guarded by advanceLock
+
+    TimerWheel(int bucketCount, long tickNanos, long nowNanos) {
+        int size = Integer.highestOneBit(Math.max(2, bucketCount) - 1) << 1;
+        this.buckets = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.set(i, new ConcurrentLinkedQueue<>());
+        }
+        this.mask = size - 1;
+        this.tickNanos = tickNanos;
+        this.currentTick = nowNanos / tickNanos;
+    }
+
+    void schedule(E entry) {
+        schedule(entry, entry.expiresAtNanos() / tickNanos);
+    }
+
+    private void schedule(E entry, long tick) {
+        int index = (int) (tick & mask);
+        ConcurrentLinkedQueue<E> bucket = buckets.get(index);
+        bucket.add(entry);
+        // If advance() swapped the bucket out meanwhile, its iterator may have missed the entry, so add it
+        // to the replacement too. Seeing an entry twice is harmless: expiry is checked by identity.
+        ConcurrentLinkedQueue<E> current;
+        while ((current = buckets.get(index)) != bucket) {
+            bucket = current;
+            bucket.add(entry);
+        }
+    }
+
+    /**
+     * Visits every bucket whose tick has passed and hands truly expired entries to the callback.
+     * If another thread is already advancing, returns immediately instead of waiting.
+     */
+    void advance(long nowNanos, Consumer<E> onExpired) {
+        long nowTick = nowNanos / tickNanos;
+        if (nowTick < currentTick || !advanceLock.tryLock()) {
+            return;
+        }
+        try {
+            // One full revolution visits every bucket, so there is no point going further
+            long lastTick = Math.min(nowTick, currentTick + mask);
+            for (long tick = currentTick; tick <= lastTick; tick++) {
+                int index = (int) (tick & mask);
+                ConcurrentLinkedQueue<E> due = buckets.getAndSet(index, new ConcurrentLinkedQueue<>());
+                for (E entry : due) {
+                    if (entry.expiresAtNanos() <= nowNanos) {
+                        onExpired.accept(entry);
+                    } else {
+                        // An entry due later in the current tick goes to the next one; its own bucket was
+                        // just visited and would not come round again for a whole revolution
+                        schedule(entry, Math.max(entry.expiresAtNanos() / tickNanos, nowTick + 1));
+                    }
+                }
+            }
+            currentTick = nowTick + 1;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package easy.lrucache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scan-resistant cache using the W-TinyLFU policy.
+ *
+ * New entries land in a small window LRU (1% of capacity). Entries evicted from the window become
+ * candidates for the main region, which is a segmented LRU split into probation (20%) and protected (80%).
+ * A candidate is only admitted if the frequency sketch says it has been seen more often than the
+ * victim it would replace, so a one-off scan of cold keys cannot flush the hot working set.
+ */
+public class TinyLfuCache<K, V> implements Cache<K, V> {
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    private static final class TinyLfuNode<K, V> extends Node<K, V> {
+        Region region;
+
+        TinyLfuNode(K key, V value) {
+            super(key, value);
+            this.region = Region.WINDOW;
+        }
+    }
+
+    private final Map<K, TinyLfuNode<K, V>> map;
+    private final FrequencySketch<K> sketch;
+    private final DoublyLinkedList<K, V> window;
+    private final DoublyLinkedList<K, V> probation;
+    private final DoublyLinkedList<K, V> protectedSegment;
+
+    private final int maximumSize;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private int windowSize;
+    private int probationSize;
+    private int protectedSize;
+
+    public TinyLfuCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.maximumSize = capacity;
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.protectedCapacity = (int) ((capacity - windowCapacity) * 0.8);
+        this.map = new HashMap<>();
+        this.sketch = new FrequencySketch<>(capacity);
+        this.window = new DoublyLinkedList<>();
+        this.probation = new DoublyLinkedList<>();
+        this.protectedSegment = new DoublyLinkedList<>();
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        TinyLfuNode<K, V> node = map.get(key);
+        if (node == null) return null;
+        onHit(node);
+        return node.value;
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        TinyLfuNode<K, V> node = map.get(key);
+        if (node != null) {
+            node.value = value;
+            onHit(node);
+            return;
+        }
+        sketch.increment(key);
+        TinyLfuNode<K, V> newNode = new TinyLfuNode<>(key, value);
+        map.put(key, newNode);
+        window.addFirst(newNode);
+        windowSize++;
+        evict();
+    }
+
+    @Override
+    public synchronized void remove(K key) {
+        TinyLfuNode<K, V> node = map.remove(key);
+        if (node == null) return;
+        switch (node.region) {
+            case WINDOW -> { window.remove(node); windowSize--; }
+            case PROBATION -> { probation.remove(node); probationSize--; }
+            case PROTECTED -> { protectedSegment.remove(node); protectedSize--; }
+        }
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    private void onHit(TinyLfuNode<K, V> node) {
+        switch (node.region) {
+            case WINDOW -> window.moveToFront(node);
+            case PROTECTED -> protectedSegment.moveToFront(node);
+            case PROBATION -> {
+                // A second hit promotes the entry; protected overflow is demoted back to probation
+                probation.remove(node);
+                probationSize--;
+                node.region = Region.PROTECTED;
+                protectedSegment.addFirst(node);
+                protectedSize++;
+                if (protectedSize > protectedCapacity) {
+                    TinyLfuNode<K, V> demoted = removeLast(protectedSegment);
+                    protectedSize--;
+                    demoted.region = Region.PROBATION;
+                    probation.addFirst(demoted);
+                    probationSize++;
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        if (windowSize <= windowCapacity) return;
+
+        // The window overflowed: its LRU entry becomes a candidate for the main region
+        TinyLfuNode<K, V> candidate = removeLast(window);
+        windowSize--;
+        candidate.region = Region.PROBATION;
+        probation.addFirst(candidate);
+        probationSize++;
+
+        if (map.size() <= maximumSize) return;
+
+        TinyLfuNode<K, V> victim = probationSize > 1 ? peekLast(probation) : peekLast(protectedSegment);
+        if (victim == null || victim == candidate) {
+            victim = peekLast(probation);
+        }
+        TinyLfuNode<K, V> evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key)
+                ? victim
+                : candidate;
+        if (evicted.region == Region.PROBATION) {
+            probation.remove(evicted);
+            probationSize--;
+        } else {
+            protectedSegment.remove(evicted);
+            protectedSize--;
+        }
+        map.remove(evicted.key);
+    }
+
+    private TinyLfuNode<K, V> removeLast(DoublyLinkedList<K, V> list) {
+        return (TinyLfuNode<K, V>) list.removeLast();
+    }
+
+    private TinyLfuNode<K, V> peekLast(DoublyLinkedList<K, V> list) {
+        return (TinyLfuNode<K, V>) list.peekLast();
+    }
+}
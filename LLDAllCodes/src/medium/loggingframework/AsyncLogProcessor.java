@@ -0,0 +1,209 @@
+package medium.loggingframework;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands log messages from application threads to a single background writer.
+ *
+ * Messages are copied into the preallocated LogMessage of a LogRingBuffer slot instead of being queued
+ * on an executor, so logging allocates no message, task or queue node and memory stays bounded during
+ * bursts. The writer thread drains every published
+ * slot at once, groups the messages by appender and calls appendBatch() once per appender, so a file
+ * appender flushes once per batch instead of once per line.
+ *
+ * When the ring is full the OverflowPolicy decides whether the logging thread waits or the message is
+ * dropped. Dropped messages are counted; see getDroppedCount().
+ */
+public class AsyncLogProcessor {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH = 1024;
+    private static final long PRODUCER_PARK_NANOS = 50_000;
+    private static final long CONSUMER_PARK_NANOS = 1_000_000;
+
+    private final LogRingBuffer ring;
+    private final OverflowPolicy overflowPolicy;
+    private final LogLevel dropBelowLevel;
+    private final int sampleRate;
+    private final AtomicLong overflowCounter = new AtomicLong();
+    private final LongAdder droppedCount = new LongAdder();
+    // Writer thread only: batchLists.get(i) collects the messages for batchAppenders.get(i). Parallel lists
+    // with index loops instead of a map, because map iteration would allocate on every batch.
+    private final List<LogAppender> batchAppenders = new ArrayList<>();
+    private final List<List<LogMessage>> batchLists = new ArrayList<>();
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean consumerParked;
+
+    public AsyncLogProcessor() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.BLOCK, LogLevel.WARN, 1);
+    }
+
+    /**
+     * @param capacity       number of ring slots, a power of two
+     * @param overflowPolicy what to do when the ring is full
+     * @param dropBelowLevel with DROP_BELOW_LEVEL, messages below this level are dropped when full
+     * @param sampleRate     with SAMPLE, one in this many messages is kept when full
+     */
+    public AsyncLogProcessor(int capacity, OverflowPolicy overflowPolicy, LogLevel dropBelowLevel, int sampleRate) {
+        if (overflowPolicy == null || dropBelowLevel == null) {
+            throw new IllegalArgumentException("Overflow policy and drop level must not be null.");
+        }
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive.");
+        }
+        this.ring = new LogRingBuffer(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.dropBelowLevel = dropBelowLevel;
+        this.sampleRate = sampleRate;
+        this.consumer = new Thread(this::drainLoop, "AsyncLogProcessor");
+        this.consumer.setDaemon(true); // Don't prevent JVM exit
+        this.consumer.start();
+    }
+
+    void process(long timestampMillis, LogLevel level, String loggerName, String threadName, String message,
+                 String pattern, Object[] arguments, LogAppender[] appenders) {
+        if (!running) {
+            System.err.println("Logger is shut down. Cannot process log message.");
+            return;
+        }
+
+        long sequence = ring.tryClaim();
+        if (sequence == LogRingBuffer.FULL) {
+            if (shouldDrop(level)) {
+                droppedCount.increment();
+                return;
+            }
+            sequence = awaitSlot();
+            if (sequence == LogRingBuffer.FULL) {
+                droppedCount.increment();       // Shut down while waiting
+                return;
+            }
+        }
+
+        LogRingBuffer.Slot slot = ring.slot(sequence);
+        slot.message.set(timestampMillis, level, loggerName, threadName, message, pattern, arguments);
+        slot.appenders = appenders;
+        ring.publish(sequence);
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Number of messages discarded because the ring was full (or the processor stopped while waiting).
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(2000);
+            if (consumer.isAlive()) {
+                System.err.println("Logger thread did not drain the buffer in the specified time.");
+            }
+        } catch (InterruptedException e) {
+            // Preserve interrupt status
+            Thread.currentThread().interrupt();
+        }
+        long dropped = getDroppedCount();
+        if (dropped > 0) {
+            System.err.println("AsyncLogProcessor dropped " + dropped + " log message(s) because the buffer was full.");
+        }
+    }
+
+    private boolean shouldDrop(LogLevel level) {
+        switch (overflowPolicy) {
+            case DROP_BELOW_LEVEL:
+                return !level.isGreaterOrEqual(dropBelowLevel);
+            case SAMPLE:
+                return overflowCounter.getAndIncrement() % sampleRate != 0;
+            default:
+                return false;
+        }
+    }
+
+    private long awaitSlot() {
+        long sequence;
+        while ((sequence = ring.tryClaim()) == LogRingBuffer.FULL) {
+            if (!running) {
+                return LogRingBuffer.FULL;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        return sequence;
+    }
+
+    private void drainLoop() {
+        while (running || !ring.isEmpty()) {
+            long from = ring.consumerSequence();
+            long to = ring.availableUpTo(MAX_BATCH);
+            if (from == to) {
+                if (!running) {
+                    // A slot was claimed but never published; don't wait for it forever
+                    LockSupport.parkNanos(CONSUMER_PARK_NANOS);
+                    if (ring.availableUpTo(1) == from) {
+                        break;
+                    }
+                    continue;
+                }
+                // Announce the park first, then re-check, so a producer that publishes in between
+                // either sees the flag and unparks us or is seen by the re-check.
+                consumerParked = true;
+                if (ring.availableUpTo(1) == from) {
+                    LockSupport.parkNanos(CONSUMER_PARK_NANOS);
+                }
+                consumerParked = false;
+                continue;
+            }
+            dispatch(from, to);
+            ring.release(to);
+        }
+    }
+
+    private void dispatch(long from, long to) {
+        for (long sequence = from; sequence < to; sequence++) {
+            LogRingBuffer.Slot slot = ring.slot(sequence);
+            for (LogAppender appender : slot.appenders) {
+                batchFor(appender).add(slot.message);
+            }
+        }
+        for (int i = 0; i < batchAppenders.size(); i++) {
+            List<LogMessage> batch = batchLists.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                batchAppenders.get(i).appendBatch(batch);
+            } catch (RuntimeException e) {
+                System.err.println("Appender failed to write " + batch.size() + " log message(s): " + e.getMessage());
+            }
+            batch.clear();
+        }
+        for (long sequence = from; sequence < to; sequence++) {
+            LogRingBuffer.Slot slot = ring.slot(sequence);
+            slot.message.clear();               // Don't keep message text reachable while the slot waits for reuse
+            slot.appenders = null;
+        }
+    }
+
+    private List<LogMessage> batchFor(LogAppender appender) {
+        // Linear scan: a handful of appenders is the norm, and this keeps the lookup allocation-free
+        for (int i = 0; i < batchAppenders.size(); i++) {
+            if (batchAppenders.get(i) == appender) {
+                return batchLists.get(i);
+            }
+        }
+        List<LogMessage> batch = new ArrayList<>();
+        batchAppenders.add(appender);
+        batchLists.add(batch);
+        return batch;
+    }
+}
@@ -0,0 +1,289 @@
+package medium.loggingframework;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes log messages as compact binary records (see BinaryLogFormat) into memory-mapped segment files
+ * named "<prefix>-<n>.blog"; render them with BinaryLogDecoder. Numbering continues after the highest
+ * segment already in the directory, so a restarted process appends new segments instead of failing.
+ *
+ * Logger names, thread names and "{}" patterns are written once per segment and then referenced by a
+ * small id, timestamps are varint deltas, and the arguments of parameterized calls are stored as raw
+ * values, so a typical event takes a dozen bytes and the message text is never formatted. Records are
+ * copied straight into the mapped segment; the OS writes the pages back, and flush()/close() force them.
+ *
+ * The formatter is not used: text is produced by the decoder.
+ */
+public class BinaryLogAppender implements LogAppender {
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final RecordBuffer record = new RecordBuffer();
+    private LogFormatter formatter = new SimpleTextFormatter();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private long lastTimestampMillis;
+    private boolean closed;
+
+    public BinaryLogAppender(Path directory, String prefix) {
+        this(directory, prefix, 64 * 1024 * 1024);
+    }
+
+    public BinaryLogAppender(Path directory, String prefix, int segmentSize) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes.");
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            segmentIndex = nextFreeSegmentIndex();
+            openSegment(System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open binary log segment in " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void append(LogMessage logMessage) {
+        write(logMessage);
+    }
+
+    @Override
+    public synchronized void appendBatch(List<LogMessage> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            write(batch.get(i));
+        }
+    }
+
+    /**
+     * Forces the written part of the current segment to disk.
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            closeSegment();
+        } catch (IOException e) {
+            System.out.println("Failed to close binary log segment, exception: " + e.getMessage());
+        }
+        closed = true;
+    }
+
+    @Override
+    public void setFormatter(LogFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+
+    private void write(LogMessage logMessage) {
+        if (closed) {
+            return;
+        }
+        try {
+            encode(logMessage);
+            if (record.length > segment.remaining() || dictionary.size() > MAX_DICTIONARY_SIZE) {
+                // Dictionary ids are per segment, so the record must be encoded again for the new one
+                closeSegment();
+                openSegment(logMessage.getTimestampMillis());
+                encode(logMessage);
+                if (record.length > segment.remaining()) {
+                    // The strings it interned were never written, so later records must define them again
+                    dictionary.clear();
+                    System.out.println("Dropped log record of " + record.length + " bytes: larger than a segment.");
+                    return;
+                }
+            }
+            segment.put(record.bytes, 0, record.length);
+            lastTimestampMillis = logMessage.getTimestampMillis();
+        } catch (IOException e) {
+            System.out.println("Failed to write binary log segment, exception: " + e.getMessage());
+        }
+    }
+
+    private void encode(LogMessage logMessage) {
+        record.length = 0;
+        // Emit dictionary definitions first, so the event below can refer to them by id
+        int loggerId = intern(logMessage.getLoggerName());
+        int threadId = intern(logMessage.getThreadName());
+        String pattern = logMessage.getPattern();
+        int patternId = pattern != null ? intern(pattern) : -1;
+
+        int flags = logMessage.getLevel().ordinal() | (pattern != null ? BinaryLogFormat.FLAG_TEMPLATE : 0);
+        record.putByte(BinaryLogFormat.TAG_EVENT);
+        record.putByte(flags);
+        record.putVarLong(BinaryLogFormat.zigZag(logMessage.getTimestampMillis() - lastTimestampMillis));
+        record.putVarLong(loggerId);
+        record.putVarLong(threadId);
+        if (pattern == null) {
+            record.putString(logMessage.getMessage());
+            return;
+        }
+        Object[] arguments = logMessage.getArguments();
+        int count = arguments == null ? 0 : arguments.length;
+        record.putVarLong(patternId);
+        record.putVarLong(count);
+        for (int i = 0; i < count; i++) {
+            putArgument(arguments[i]);
+        }
+    }
+
+    private int intern(String value) {
+        String key = value == null ? "null" : value;
+        Integer id = dictionary.get(key);
+        if (id != null) {
+            return id;
+        }
+        int newId = dictionary.size();
+        dictionary.put(key, newId);
+        record.putByte(BinaryLogFormat.TAG_STRING);
+        record.putVarLong(newId);
+        record.putString(key);
+        return newId;
+    }
+
+    private void putArgument(Object argument) {
+        if (argument == null) {
+            record.putByte(BinaryLogFormat.ARG_NULL);
+        } else if (argument instanceof Long || argument instanceof Integer
+                || argument instanceof Short || argument instanceof Byte) {
+            record.putByte(BinaryLogFormat.ARG_LONG);
+            record.putVarLong(BinaryLogFormat.zigZag(((Number) argument).longValue()));
+        } else if (argument instanceof Double) {
+            record.putByte(BinaryLogFormat.ARG_DOUBLE);
+            record.putLong(Double.doubleToRawLongBits((Double) argument));
+        } else if (argument instanceof Float) {
+            record.putByte(BinaryLogFormat.ARG_FLOAT);
+            record.putInt(Float.floatToRawIntBits((Float) argument));
+        } else if (argument instanceof Boolean) {
+            record.putByte((Boolean) argument ? BinaryLogFormat.ARG_TRUE : BinaryLogFormat.ARG_FALSE);
+        } else if (argument instanceof Character) {
+            record.putByte(BinaryLogFormat.ARG_CHAR);
+            record.putVarLong((Character) argument);
+        } else {
+            record.putByte(BinaryLogFormat.ARG_STRING);
+            // Logger has normally rendered mutable arguments already; render anything else the same way
+            record.putString(ParameterizedMessage.render(argument));
+        }
+    }
+
+    // One past the highest "<prefix>-<n>.blog" already in the directory
+    private int nextFreeSegmentIndex() throws IOException {
+        int next = 0;
+        String start = prefix + "-";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, start + "*" + BinaryLogFormat.FILE_SUFFIX)) {
+            for (Path existing : files) {
+                String name = existing.getFileName().toString();
+                String digits = name.substring(start.length(), name.length() - BinaryLogFormat.FILE_SUFFIX.length());
+                if (!digits.isEmpty() && digits.chars().allMatch(Character::isDigit) && digits.length() < 10) {
+                    next = Math.max(next, Integer.parseInt(digits) + 1);
+                }
+            }
+        }
+        return next;
+    }
+
+    private void openSegment(long baseTimestampMillis) throws IOException {
+        while (true) {
+            Path file = directory.resolve(String.format("%s-%06d%s", prefix, segmentIndex++, BinaryLogFormat.FILE_SUFFIX));
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Another appender took this index since we looked; move on to the next one
+            }
+        }
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(BinaryLogFormat.MAGIC)
+                .putShort(BinaryLogFormat.VERSION)
+                .putShort((short) 0)
+                .putLong(baseTimestampMillis);
+        dictionary.clear();
+        lastTimestampMillis = baseTimestampMillis;
+    }
+
+    private void closeSegment() throws IOException {
+        segment.force();
+        // Drop the unused zero-filled tail; the decoder also stops at a 0 tag if this never happens
+        channel.truncate(segment.position());
+        channel.close();
+    }
+
+    /**
+     * Reusable, growable scratch array a record is encoded into before it is copied into the segment.
+     */
+    private static final class RecordBuffer {
+        byte[] bytes = new byte[512];
+        int length;
+
+        void putByte(int value) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) value;
+        }
+
+        void putVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7fL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void putInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        void putLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        void putString(String value) {
+            String text = value == null ? "null" : value;
+            int utf8Length = LogEncoder.utf8Length(text);
+            putVarLong(utf8Length);
+            ensureCapacity(utf8Length);
+            length = LogEncoder.encodeUtf8(text, bytes, length);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + extra, bytes.length * 2));
+            }
+        }
+    }
+}
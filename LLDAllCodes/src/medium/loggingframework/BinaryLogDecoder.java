@@ -0,0 +1,170 @@
+package medium.loggingframework;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Renders segments written by BinaryLogAppender back to text, offline.
+ *
+ * Usage: java medium.loggingframework.BinaryLogDecoder <segment file or directory>...
+ * Directories are expanded to their *.blog files in name order, i.e. in the order they were written.
+ * Lines use the SimpleTextFormatter layout, so the output matches what a text appender would have written.
+ */
+public class BinaryLogDecoder {
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: BinaryLogDecoder <segment file or directory>...");
+            System.exit(2);
+        }
+        LogFormatter formatter = new SimpleTextFormatter();
+        StringBuilder line = new StringBuilder(256);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024)) {
+            for (String arg : args) {
+                for (Path segment : segmentsIn(Paths.get(arg))) {
+                    decode(segment, logMessage -> {
+                        line.setLength(0);
+                        formatter.formatTo(logMessage, line);
+                        try {
+                            out.append(line);
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Failed to write decoded log line.", e);
+                        }
+                    });
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to decode binary log: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Calls the consumer with every event in the segment, in order. The LogMessage is reused between calls.
+     */
+    public static void decode(Path segmentFile, Consumer<LogMessage> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < BinaryLogFormat.HEADER_BYTES || buffer.getInt() != BinaryLogFormat.MAGIC) {
+                throw new IOException("Not a binary log segment: " + segmentFile);
+            }
+            short version = buffer.getShort();
+            if (version != BinaryLogFormat.VERSION) {
+                throw new IOException("Unsupported binary log version " + version + ": " + segmentFile);
+            }
+            buffer.getShort();                  // Reserved
+            long timestampMillis = buffer.getLong();
+
+            List<String> dictionary = new ArrayList<>();
+            LogMessage logMessage = new LogMessage();
+            while (buffer.hasRemaining()) {
+                byte tag = buffer.get();
+                if (tag == BinaryLogFormat.TAG_END) {
+                    break;
+                }
+                if (tag == BinaryLogFormat.TAG_STRING) {
+                    int id = (int) getVarLong(buffer);
+                    if (id != dictionary.size()) {
+                        throw new IOException("Corrupt binary log, dictionary id " + id + " out of order: " + segmentFile);
+                    }
+                    dictionary.add(getString(buffer));
+                    continue;
+                }
+                if (tag != BinaryLogFormat.TAG_EVENT) {
+                    throw new IOException("Corrupt binary log, unknown tag " + tag + " at " + (buffer.position() - 1)
+                            + ": " + segmentFile);
+                }
+                int flags = buffer.get();
+                timestampMillis += BinaryLogFormat.unZigZag(getVarLong(buffer));
+                LogLevel level = LEVELS[flags & BinaryLogFormat.LEVEL_MASK];
+                String loggerName = lookup(dictionary, getVarLong(buffer), segmentFile);
+                String threadName = lookup(dictionary, getVarLong(buffer), segmentFile);
+                if ((flags & BinaryLogFormat.FLAG_TEMPLATE) == 0) {
+                    logMessage.set(timestampMillis, level, loggerName, threadName, getString(buffer));
+                } else {
+                    String pattern = lookup(dictionary, getVarLong(buffer), segmentFile);
+                    Object[] arguments = new Object[(int) getVarLong(buffer)];
+                    for (int i = 0; i < arguments.length; i++) {
+                        arguments[i] = getArgument(buffer);
+                    }
+                    logMessage.set(timestampMillis, level, loggerName, threadName, null, pattern, arguments);
+                }
+                consumer.accept(logMessage);
+            }
+        }
+    }
+
+    private static String lookup(List<String> dictionary, long id, Path segmentFile) throws IOException {
+        if (id < 0 || id >= dictionary.size()) {
+            throw new IOException("Corrupt binary log, undefined dictionary id " + id + ": " + segmentFile);
+        }
+        return dictionary.get((int) id);
+    }
+
+    private static List<Path> segmentsIn(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(BinaryLogFormat.FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Object getArgument(ByteBuffer buffer) throws IOException {
+        byte type = buffer.get();
+        switch (type) {
+            case BinaryLogFormat.ARG_NULL:
+                return null;
+            case BinaryLogFormat.ARG_STRING:
+                return getString(buffer);
+            case BinaryLogFormat.ARG_LONG:
+                return BinaryLogFormat.unZigZag(getVarLong(buffer));
+            case BinaryLogFormat.ARG_DOUBLE:
+                return buffer.getDouble();
+            case BinaryLogFormat.ARG_FLOAT:
+                return buffer.getFloat();
+            case BinaryLogFormat.ARG_TRUE:
+                return Boolean.TRUE;
+            case BinaryLogFormat.ARG_FALSE:
+                return Boolean.FALSE;
+            case BinaryLogFormat.ARG_CHAR:
+                return (char) getVarLong(buffer);
+            default:
+                throw new IOException("Corrupt binary log, unknown argument type " + type);
+        }
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) getVarLong(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,56 @@
+package medium.loggingframework;
+
+/**
+ * Record layout shared by BinaryLogAppender and BinaryLogDecoder.
+ *
+ * A segment file starts with a 16-byte header:
+ *   int  magic "BLOG", short version, short reserved, long base timestamp (epoch millis)
+ * followed by records, each starting with a tag byte. A 0 tag (the zero-filled tail of a segment that
+ * was not closed cleanly) or the end of the file ends the segment.
+ *
+ *   TAG_STRING  varint id, varint length, UTF-8 bytes
+ *               Defines a dictionary entry (logger name, thread name or pattern). Ids are per segment,
+ *               so every segment can be decoded on its own.
+ *   TAG_EVENT   byte   level ordinal | FLAG_TEMPLATE
+ *               varint zigzag milliseconds since the previous event (or the header's base timestamp)
+ *               varint logger id, varint thread id
+ *               with FLAG_TEMPLATE: varint pattern id, varint argument count, arguments
+ *               otherwise:          varint length, UTF-8 message bytes
+ *
+ * An argument is a type byte followed by its value: ARG_LONG (zigzag varint, for all integral types),
+ * ARG_DOUBLE (8 bytes), ARG_FLOAT (4 bytes), ARG_TRUE / ARG_FALSE / ARG_NULL (no value), ARG_CHAR (varint)
+ * or ARG_STRING (varint length, UTF-8; any other object is stored as its string form).
+ * Multi-byte values are big-endian.
+ */
+final class BinaryLogFormat {
+    static final int MAGIC = 0x424c4f47;        // "BLOG"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final String FILE_SUFFIX = ".blog";
+
+    static final byte TAG_END = 0;
+    static final byte TAG_STRING = 1;
+    static final byte TAG_EVENT = 2;
+
+    static final int LEVEL_MASK = 0x07;
+    static final int FLAG_TEMPLATE = 0x08;
+
+    static final byte ARG_NULL = 0;
+    static final byte ARG_STRING = 1;
+    static final byte ARG_LONG = 2;
+    static final byte ARG_DOUBLE = 3;
+    static final byte ARG_FLOAT = 4;
+    static final byte ARG_TRUE = 5;
+    static final byte ARG_FALSE = 6;
+    static final byte ARG_CHAR = 7;
+
+    private BinaryLogFormat() {}
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
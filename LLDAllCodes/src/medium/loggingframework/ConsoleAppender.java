@@ -0,0 +1,53 @@
+package medium.loggingframework;
+
+import java.util.List;
+
+public class ConsoleAppender implements LogAppender {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final LogEncoder encoder = new LogEncoder();
+    private LogFormatter formatter;
+
+    public ConsoleAppender() {
+        this.formatter = new SimpleTextFormatter();
+    }
+
+    @Override
+    public synchronized void append(LogMessage logMessage) {
+        encoder.reset();
+        encodeLine(logMessage);
+        writeToConsole();
+    }
+
+    @Override
+    public synchronized void appendBatch(List<LogMessage> batch) {
+        encoder.reset();
+        for (int i = 0; i < batch.size(); i++) {
+            encodeLine(batch.get(i));
+        }
+        writeToConsole();
+    }
+
+    private void encodeLine(LogMessage logMessage) {
+        encoder.encode(logMessage, formatter);
+        encoder.encode(LINE_SEPARATOR);
+    }
+
+    private void writeToConsole() {
+        System.out.write(encoder.array(), 0, encoder.length());
+        System.out.flush();
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void setFormatter(LogFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+}
@@ -0,0 +1,10 @@
+package medium.loggingframework;
+
+/**
+ * When RollingFileAppender forces written log data to the storage device (fsync).
+ */
+public enum DurabilityMode {
+    NONE,       // Leave it to the OS; fastest, but a machine crash can lose recent lines
+    BATCH,      // Force whenever a batch (or flush tick) is written; survives crashes, one fsync per batch
+    INTERVAL    // Force from the background flusher every flush interval
+}
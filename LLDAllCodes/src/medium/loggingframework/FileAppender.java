@@ -0,0 +1,68 @@
+package medium.loggingframework;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+public class FileAppender implements LogAppender {
+    private final LogEncoder encoder = new LogEncoder();
+    private FileOutputStream out;
+    private LogFormatter formatter;
+
+    public FileAppender(String filePath) {
+        this.formatter = new SimpleTextFormatter();
+        try {
+            this.out = new FileOutputStream(filePath, true);
+        } catch (Exception e) {
+            System.out.println("Failed to create writer for file logs, exception: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void append(LogMessage logMessage) {
+        encoder.reset();
+        encodeLine(logMessage);
+        write();
+    }
+
+    @Override
+    public synchronized void appendBatch(List<LogMessage> batch) {
+        encoder.reset();
+        for (int i = 0; i < batch.size(); i++) {
+            encodeLine(batch.get(i));
+        }
+        write(); // One write per batch instead of per line
+    }
+
+    private void encodeLine(LogMessage logMessage) {
+        encoder.encode(logMessage, formatter);
+        encoder.encode("\n");
+    }
+
+    private void write() {
+        try {
+            out.write(encoder.array(), 0, encoder.length());
+        } catch (IOException e) {
+            System.out.println("Failed to write logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close logs file, exception: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void setFormatter(LogFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+}
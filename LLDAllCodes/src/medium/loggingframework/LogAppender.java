@@ -0,0 +1,21 @@
+package medium.loggingframework;
+
+import java.util.List;
+
+public interface LogAppender {
+    void append(LogMessage logMessage);
+
+    /**
+     * Called by the async processor with every message it drained for this appender in one pass,
+     * in logging order. Appenders that pay a per-write cost (flush, syscall) should override this.
+     */
+    default void appendBatch(List<LogMessage> batch) {
+        for (LogMessage logMessage : batch) {
+            append(logMessage);
+        }
+    }
+
+    void close();
+    LogFormatter getFormatter();
+    void setFormatter(LogFormatter formatter);
+}
@@ -0,0 +1,104 @@
+package medium.loggingframework;
+
+import java.util.Arrays;
+
+/**
+ * Formats messages into a reusable StringBuilder and encodes the text straight to UTF-8 bytes in a
+ * reusable array, so an appender can hand the result to an OutputStream without creating Strings.
+ * Both buffers only ever grow. Not thread-safe: each appender owns one and uses it under its own lock.
+ */
+public final class LogEncoder {
+    private final StringBuilder text = new StringBuilder(256);
+    private byte[] bytes = new byte[4096];
+    private int length;
+
+    /**
+     * Formats the message and appends its UTF-8 encoding to the byte buffer.
+     */
+    public void encode(LogMessage logMessage, LogFormatter formatter) {
+        text.setLength(0);
+        formatter.formatTo(logMessage, text);
+        encode(text);
+    }
+
+    /**
+     * Appends the UTF-8 encoding of the characters, e.g. a line separator.
+     */
+    public void encode(CharSequence chars) {
+        // At most 3 bytes per UTF-16 char (a surrogate pair takes 4 bytes for 2 chars)
+        ensureCapacity(length + chars.length() * 3);
+        length = encodeUtf8(chars, bytes, length);
+    }
+
+    /**
+     * Writes the UTF-8 encoding of chars into dest at offset and returns the offset after it.
+     * dest must have room for utf8Length(chars) bytes.
+     */
+    static int encodeUtf8(CharSequence chars, byte[] dest, int offset) {
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                dest[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                dest[offset++] = (byte) (0xc0 | c >> 6);
+                dest[offset++] = (byte) (0x80 | c & 0x3f);
+            } else if (isSurrogatePair(chars, i)) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                dest[offset++] = (byte) (0xf0 | codePoint >> 18);
+                dest[offset++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                dest[offset++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                dest[offset++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                dest[offset++] = '?';           // Unpaired surrogate, same as String.getBytes(UTF_8)
+            } else {
+                dest[offset++] = (byte) (0xe0 | c >> 12);
+                dest[offset++] = (byte) (0x80 | c >> 6 & 0x3f);
+                dest[offset++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        return offset;
+    }
+
+    static int utf8Length(CharSequence chars) {
+        int utf8Length = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                utf8Length += 1;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (isSurrogatePair(chars, i)) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length += 1;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        return utf8Length;
+    }
+
+    private static boolean isSurrogatePair(CharSequence chars, int index) {
+        return Character.isHighSurrogate(chars.charAt(index)) && index + 1 < chars.length()
+                && Character.isLowSurrogate(chars.charAt(index + 1));
+    }
+
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void reset() {
+        length = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package medium.loggingframework;
+
+public interface LogFormatter {
+    String format(LogMessage logMessage);
+
+    /**
+     * Appends the formatted message to a caller-owned builder. Formatters used on the hot path should
+     * override this so that formatting allocates nothing; the default falls back to format().
+     */
+    default void formatTo(LogMessage logMessage, StringBuilder out) {
+        out.append(format(logMessage));
+    }
+}
@@ -0,0 +1,68 @@
+package medium.loggingframework;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LogManager {
+    private static final LogManager INSTANCE = new LogManager();
+    private final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private final Logger rootLogger;
+    private volatile AsyncLogProcessor processor;
+
+    private LogManager() {
+        this.rootLogger = new Logger("root", null);
+        this.loggers.put("root", rootLogger);
+        this.processor = new AsyncLogProcessor();
+    }
+
+    public static LogManager getInstance() {
+        return INSTANCE;
+    }
+
+    public Logger getLogger(String name) {
+        Logger logger = loggers.get(name);
+        if (logger != null) {
+            return logger;
+        }
+        // Resolve the parent first: creating it from inside computeIfAbsent would be a recursive
+        // update of the same map, which ConcurrentHashMap rejects.
+        int lastDot = name.lastIndexOf('.');
+        String parentName = (lastDot == -1) ? "root" : name.substring(0, lastDot);
+        Logger parent = getLogger(parentName);
+        return loggers.computeIfAbsent(name, key -> new Logger(key, parent));
+    }
+
+    public Logger getRootLogger() {
+        return rootLogger;
+    }
+
+    AsyncLogProcessor getProcessor() {
+        return processor;
+    }
+
+    /**
+     * Replaces the async processor, e.g. to change the buffer size or overflow policy. Messages already
+     * queued on the old processor are written before this returns.
+     */
+    public void configureAsync(int capacity, OverflowPolicy overflowPolicy, LogLevel dropBelowLevel, int sampleRate) {
+        AsyncLogProcessor previous = processor;
+        processor = new AsyncLogProcessor(capacity, overflowPolicy, dropBelowLevel, sampleRate);
+        previous.stop();
+    }
+
+    public long getDroppedLogCount() {
+        return processor.getDroppedCount();
+    }
+
+    public void shutdown() {
+        // Stop the processor first to ensure all logs are written.
+        processor.stop();
+
+        // Then, close all appenders.
+        loggers.values().stream()
+                .flatMap(logger -> logger.getAppenders().stream())
+                .distinct()
+                .forEach(LogAppender::close);
+        System.out.println("Logging framework shut down gracefully.");
+    }
+}
@@ -0,0 +1,74 @@
+package medium.loggingframework;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A single log event. The async path keeps one preallocated LogMessage per ring slot and refills it in
+ * place, so appenders must not hold on to a message after append()/appendBatch() returns.
+ */
+public final class LogMessage {
+    private long timestampMillis;
+    private LogLevel level;
+    private String loggerName;
+    private String threadName;
+    private String message;                     // Formatted lazily from pattern and arguments when null
+    // Immutable values only: Logger renders any other argument to a String before it gets here
+    private String pattern;
+    private Object[] arguments;
+
+    public LogMessage(LogLevel level, String loggerName, String message) {
+        set(System.currentTimeMillis(), level, loggerName, Thread.currentThread().getName(), message);
+    }
+
+    LogMessage() {}
+
+    void set(long timestampMillis, LogLevel level, String loggerName, String threadName, String message) {
+        set(timestampMillis, level, loggerName, threadName, message, null, null);
+    }
+
+    /**
+     * Either message or pattern (with its arguments) is given; the other is null.
+     */
+    void set(long timestampMillis, LogLevel level, String loggerName, String threadName, String message,
+             String pattern, Object[] arguments) {
+        this.timestampMillis = timestampMillis;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = threadName;
+        this.message = message;
+        this.pattern = pattern;
+        this.arguments = arguments;
+    }
+
+    void clear() {
+        set(0, null, null, null, null, null, null);
+    }
+
+    // Getters for all fields
+    public long getTimestampMillis() { return timestampMillis; }
+    public LogLevel getLevel() { return level; }
+    public String getLoggerName() { return loggerName; }
+    public String getThreadName() { return threadName; }
+
+    public String getMessage() {
+        if (message == null && pattern != null) {
+            message = ParameterizedMessage.format(pattern, arguments);
+        }
+        return message;
+    }
+
+    /**
+     * The "{}" pattern of a parameterized log call, or null if the caller passed a finished message.
+     */
+    public String getPattern() { return pattern; }
+    public Object[] getArguments() { return arguments; }
+
+    /**
+     * Allocates; formatters on the hot path should use getTimestampMillis() with TimestampText.
+     */
+    public LocalDateTime getTimestamp() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+    }
+}
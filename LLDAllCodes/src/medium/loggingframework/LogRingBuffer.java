@@ -0,0 +1,93 @@
+package medium.loggingframework;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Preallocated multi-producer, single-consumer ring of reusable log event slots.
+ *
+ * Producers claim a sequence number with a CAS, fill the slot for that sequence and then publish it.
+ * The consumer walks forward from its own sequence for as long as slots are published, so it can take
+ * a whole run of events in one go. No per-event task or queue node is allocated, and the ring never
+ * grows: when every slot is in use, tryClaim() fails and the caller applies its overflow policy.
+ */
+class LogRingBuffer {
+    static final class Slot {
+        final LogMessage message = new LogMessage();   // Refilled in place, never reallocated
+        LogAppender[] appenders;
+    }
+
+    static final long FULL = -1;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLongArray published;    // Sequence last published into each slot
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final AtomicLong consumerSequence = new AtomicLong();
+
+    LogRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a positive power of two.");
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claims the next sequence, or returns FULL if the consumer has not freed a slot yet.
+     */
+    long tryClaim() {
+        while (true) {
+            long sequence = claimSequence.get();
+            if (sequence - consumerSequence.get() >= slots.length) {
+                return FULL;
+            }
+            if (claimSequence.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    Slot slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Consumer side: returns the sequence after the last contiguous published slot, starting at
+     * consumerSequence. The slots in between may be read until release() is called.
+     */
+    long availableUpTo(int maxBatch) {
+        long next = consumerSequence.get();
+        long limit = next + maxBatch;
+        while (next < limit && published.get((int) next & mask) == next) {
+            next++;
+        }
+        return next;
+    }
+
+    long consumerSequence() {
+        return consumerSequence.get();
+    }
+
+    /**
+     * Hands every slot before the given sequence back to producers.
+     */
+    void release(long upTo) {
+        consumerSequence.set(upTo);
+    }
+
+    boolean isEmpty() {
+        return consumerSequence.get() == claimSequence.get();
+    }
+}
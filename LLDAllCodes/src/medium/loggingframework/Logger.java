@@ -0,0 +1,248 @@
+package medium.loggingframework;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Named logger in a dot-separated hierarchy. A logger without its own level inherits its parent's.
+ *
+ * The effective level is resolved once and cached in a single int together with the level generation it
+ * was resolved at. Every setLevel() bumps the global generation, which invalidates all caches at once, so
+ * a disabled log call costs one volatile read and two compares. The parameterized and Supplier overloads
+ * only build the message after that check passes.
+ *
+ * Parameterized calls hand the pattern and arguments to the appenders unformatted: text appenders format
+ * them on the writer thread, and BinaryLogAppender stores them without ever building the text. Only
+ * immutable arguments (strings, boxed primitives, enums) are deferred like that; any other argument is
+ * rendered to text on the calling thread once the level check has passed, so it is logged as it was at
+ * the call.
+ */
+public class Logger {
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    private static final int LEVEL_BITS = 3;
+    private static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+    private static final int GENERATION_MASK = -1 >>> LEVEL_BITS;
+    private static final AtomicInteger LEVEL_GENERATION = new AtomicInteger(1);
+
+    private final String name;
+    private volatile LogLevel level;
+    // generation << LEVEL_BITS | ordinal of the effective level. A plain field is enough: the int is
+    // written whole, and a stale value carries an old generation, which only causes a re-resolve.
+    private int cachedEffectiveLevel;
+    private final Logger parent;
+    private final List<LogAppender> appenders;
+    private volatile LogAppender[] appenderArray = new LogAppender[0];   // Snapshot handed to the processor
+    private boolean additivity = true;
+
+    Logger(String name, Logger parent) {
+        this.name = name;
+        this.parent = parent;
+        this.appenders = new CopyOnWriteArrayList<>();
+    }
+
+    public synchronized void addAppender(LogAppender appender) {
+        appenders.add(appender);
+        appenderArray = appenders.toArray(new LogAppender[0]);
+    }
+
+    public List<LogAppender> getAppenders() {
+        return appenders;
+    }
+
+    public void setLevel(LogLevel minLevel) {
+        this.level = minLevel;
+        // Bump after the write, so a reader that sees the new generation also sees the new level
+        LEVEL_GENERATION.incrementAndGet();
+    }
+
+    public void setAdditivity(boolean additivity) {
+        this.additivity = additivity;
+    }
+
+    public LogLevel getEffectiveLevel() {
+        return LEVELS[effectiveLevelOrdinal()];
+    }
+
+    public boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel.ordinal() >= effectiveLevelOrdinal();
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    private int effectiveLevelOrdinal() {
+        int generation = LEVEL_GENERATION.get() & GENERATION_MASK;
+        int cached = cachedEffectiveLevel;
+        if (cached >>> LEVEL_BITS == generation) {
+            return cached & LEVEL_MASK;
+        }
+        // The generation was read before walking the chain, so a concurrent setLevel() is either seen
+        // by the walk or leaves a newer generation behind that forces the next call to resolve again.
+        int ordinal = resolveEffectiveLevel().ordinal();
+        cachedEffectiveLevel = generation << LEVEL_BITS | ordinal;
+        return ordinal;
+    }
+
+    private LogLevel resolveEffectiveLevel() {
+        for (Logger logger = this; logger != null; logger = logger.parent) {
+            LogLevel currentLevel = logger.level;
+            if (currentLevel != null) {
+                return currentLevel;
+            }
+        }
+        return LogLevel.DEBUG; // Default root level
+    }
+
+    public void log(LogLevel messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            dispatch(messageLevel, message);
+        }
+    }
+
+    /**
+     * Logs the pattern with each "{}" replaced by the next argument; formats only if the level is enabled.
+     */
+    public void log(LogLevel messageLevel, String pattern, Object... args) {
+        if (isEnabled(messageLevel)) {
+            dispatch(messageLevel, pattern, args);
+        }
+    }
+
+    /**
+     * Logs the supplied message; the supplier is only called if the level is enabled.
+     */
+    public void log(LogLevel messageLevel, Supplier<String> messageSupplier) {
+        if (isEnabled(messageLevel)) {
+            dispatch(messageLevel, messageSupplier.get());
+        }
+    }
+
+    private void dispatch(LogLevel messageLevel, String message) {
+        dispatch(messageLevel, message, null, null);
+    }
+
+    private void dispatch(LogLevel messageLevel, String pattern, Object[] args) {
+        dispatch(messageLevel, null, pattern, ParameterizedMessage.captureArguments(args));
+    }
+
+    private void dispatch(LogLevel messageLevel, String message, String pattern, Object[] args) {
+        // No LogMessage is created here; the processor copies these fields into a preallocated slot
+        callAppenders(System.currentTimeMillis(), messageLevel, this.name, Thread.currentThread().getName(),
+                message, pattern, args);
+    }
+
+    private void callAppenders(long timestampMillis, LogLevel messageLevel, String loggerName, String threadName,
+                               String message, String pattern, Object[] args) {
+        LogAppender[] targets = appenderArray;
+        if (targets.length > 0) {
+            LogManager.getInstance().getProcessor()
+                    .process(timestampMillis, messageLevel, loggerName, threadName, message, pattern, args, targets);
+        }
+        if (additivity && parent != null) {
+            parent.callAppenders(timestampMillis, messageLevel, loggerName, threadName, message, pattern, args);
+        }
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+    public void debug(String pattern, Object arg) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            dispatch(LogLevel.DEBUG, pattern, new Object[] {arg});
+        }
+    }
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            dispatch(LogLevel.DEBUG, pattern, new Object[] {arg1, arg2});
+        }
+    }
+    public void debug(String pattern, Object... args) {
+        log(LogLevel.DEBUG, pattern, args);
+    }
+    public void debug(Supplier<String> messageSupplier) {
+        log(LogLevel.DEBUG, messageSupplier);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+    public void info(String pattern, Object arg) {
+        if (isEnabled(LogLevel.INFO)) {
+            dispatch(LogLevel.INFO, pattern, new Object[] {arg});
+        }
+    }
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.INFO)) {
+            dispatch(LogLevel.INFO, pattern, new Object[] {arg1, arg2});
+        }
+    }
+    public void info(String pattern, Object... args) {
+        log(LogLevel.INFO, pattern, args);
+    }
+    public void info(Supplier<String> messageSupplier) {
+        log(LogLevel.INFO, messageSupplier);
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+    public void warn(String pattern, Object arg) {
+        if (isEnabled(LogLevel.WARN)) {
+            dispatch(LogLevel.WARN, pattern, new Object[] {arg});
+        }
+    }
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.WARN)) {
+            dispatch(LogLevel.WARN, pattern, new Object[] {arg1, arg2});
+        }
+    }
+    public void warn(String pattern, Object... args) {
+        log(LogLevel.WARN, pattern, args);
+    }
+    public void warn(Supplier<String> messageSupplier) {
+        log(LogLevel.WARN, messageSupplier);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message);
+    }
+    public void error(String pattern, Object arg) {
+        if (isEnabled(LogLevel.ERROR)) {
+            dispatch(LogLevel.ERROR, pattern, new Object[] {arg});
+        }
+    }
+    public void error(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.ERROR)) {
+            dispatch(LogLevel.ERROR, pattern, new Object[] {arg1, arg2});
+        }
+    }
+    public void error(String pattern, Object... args) {
+        log(LogLevel.ERROR, pattern, args);
+    }
+    public void error(Supplier<String> messageSupplier) {
+        log(LogLevel.ERROR, messageSupplier);
+    }
+
+    public void fatal(String message) {
+        log(LogLevel.FATAL, message);
+    }
+    public void fatal(String pattern, Object arg) {
+        if (isEnabled(LogLevel.FATAL)) {
+            dispatch(LogLevel.FATAL, pattern, new Object[] {arg});
+        }
+    }
+    public void fatal(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.FATAL)) {
+            dispatch(LogLevel.FATAL, pattern, new Object[] {arg1, arg2});
+        }
+    }
+    public void fatal(String pattern, Object... args) {
+        log(LogLevel.FATAL, pattern, args);
+    }
+    public void fatal(Supplier<String> messageSupplier) {
+        log(LogLevel.FATAL, messageSupplier);
+    }
+}
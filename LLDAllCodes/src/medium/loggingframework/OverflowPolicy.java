@@ -0,0 +1,10 @@
+package medium.loggingframework;
+
+/**
+ * What a logging thread does when the async ring buffer is full.
+ */
+public enum OverflowPolicy {
+    BLOCK,              // Wait for the consumer to free a slot; nothing is lost
+    DROP_BELOW_LEVEL,   // Drop events below the configured level, wait for the rest
+    SAMPLE              // Keep one in every N events (waiting for a slot), drop the others
+}
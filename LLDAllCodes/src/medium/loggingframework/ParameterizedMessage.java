@@ -0,0 +1,81 @@
+package medium.loggingframework;
+
+import java.util.Arrays;
+
+/**
+ * Substitutes "{}" placeholders in a log pattern with arguments, in order, SLF4J style.
+ * "\\{}" prints a literal "{}". Surplus placeholders are left as is, surplus arguments are ignored.
+ * Only called for enabled messages, normally on the writer thread from LogMessage.getMessage().
+ *
+ * Formatting that late is only safe for arguments that cannot change, so Logger passes arguments through
+ * captureArguments() on the calling thread first.
+ */
+final class ParameterizedMessage {
+    private ParameterizedMessage() {}
+
+    static String format(String pattern, Object... args) {
+        if (pattern == null || args == null || args.length == 0) {
+            return pattern;
+        }
+        StringBuilder out = new StringBuilder(pattern.length() + 16 * args.length);
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = pattern.indexOf("{}", start)) >= 0) {
+            if (placeholder > 0 && pattern.charAt(placeholder - 1) == '\\') {
+                out.append(pattern, start, placeholder - 1).append("{}");   // Escaped, keep literally
+            } else {
+                out.append(pattern, start, placeholder);
+                appendArgument(args[argIndex++], out);
+            }
+            start = placeholder + 2;
+        }
+        return out.append(pattern, start, pattern.length()).toString();
+    }
+
+    /**
+     * Returns args unchanged if every argument is immutable (null, String, a boxed primitive or an enum);
+     * otherwise a copy in which the other arguments are already rendered to their text, so a collection or
+     * builder is logged in the state it had at the call, not when the writer thread gets to it.
+     */
+    static Object[] captureArguments(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] captured = args;
+        for (int i = 0; i < args.length; i++) {
+            if (!isImmutable(args[i])) {
+                if (captured == args) {
+                    captured = args.clone();
+                }
+                captured[i] = render(args[i]);
+            }
+        }
+        return captured;
+    }
+
+    /**
+     * The text an argument contributes to the formatted message.
+     */
+    static String render(Object arg) {
+        return arg instanceof Object[] ? Arrays.deepToString((Object[]) arg) : String.valueOf(arg);
+    }
+
+    private static boolean isImmutable(Object arg) {
+        return arg == null || arg instanceof String || isBoxedPrimitive(arg)
+                || arg instanceof Boolean || arg instanceof Character || arg instanceof Enum;
+    }
+
+    private static boolean isBoxedPrimitive(Object number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte || number instanceof Double || number instanceof Float;
+    }
+
+    private static void appendArgument(Object arg, StringBuilder out) {
+        if (arg instanceof Object[]) {
+            out.append(Arrays.deepToString((Object[]) arg));
+        } else {
+            out.append(arg);
+        }
+    }
+}
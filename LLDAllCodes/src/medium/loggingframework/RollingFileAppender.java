@@ -0,0 +1,370 @@
+package medium.loggingframework;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File appender for high log volumes.
+ *
+ * - Messages are encoded into a large direct ByteBuffer and written with one FileChannel.write() when
+ *   the buffer fills, at the end of a batch, or (with a flush interval) by a background flusher, instead
+ *   of one write and flush per line.
+ * - The active file is rolled when it would exceed maxFileSize and/or when the roll interval elapses.
+ *   Rolled files are renamed to "<file>.<yyyyMMdd-HHmmss>.<n>" and, if enabled, gzipped on a
+ *   background thread so logging never waits for compression.
+ * - DurabilityMode decides when the data is forced to disk.
+ */
+public class RollingFileAppender implements LogAppender {
+    private static final DateTimeFormatter ROLL_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path file;
+    private final long maxFileSize;
+    private final long rollIntervalMillis;
+    private final long flushIntervalMillis;
+    private final DurabilityMode durability;
+    private final boolean compress;
+    private final ByteBuffer buffer;
+    private final LogEncoder encoder = new LogEncoder();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService compressor;
+    private LogFormatter formatter = new SimpleTextFormatter();
+    private FileChannel channel;
+    private long fileSize;                      // Bytes in the active file, including what is still buffered
+    private long nextRollAtMillis;
+    private boolean unforcedWrites;
+    private boolean closed;
+
+    private RollingFileAppender(Builder builder) {
+        this.file = builder.file.toAbsolutePath();
+        this.maxFileSize = builder.maxFileSize;
+        this.rollIntervalMillis = builder.rollInterval.toMillis();
+        this.flushIntervalMillis = builder.flushInterval.toMillis();
+        this.durability = builder.durability;
+        this.compress = builder.compress;
+        this.buffer = ByteBuffer.allocateDirect(builder.bufferSize);
+        try {
+            openActiveFile();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open log file " + file, e);
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "RollingFileAppender-flusher"));
+        this.compressor = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "RollingFileAppender-compressor"));
+        long tick = flushIntervalMillis > 0 ? flushIntervalMillis : Math.max(1000, Math.min(rollIntervalMillis, 60_000));
+        flusher.scheduleWithFixedDelay(this::onTimer, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void append(LogMessage logMessage) {
+        if (closed) {
+            return;
+        }
+        encode(logMessage);
+        endOfBatch();
+    }
+
+    @Override
+    public synchronized void appendBatch(List<LogMessage> batch) {
+        if (closed) {
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            encode(batch.get(i));
+        }
+        endOfBatch();
+    }
+
+    /**
+     * Writes buffered bytes to the file (and forces them unless durability is NONE).
+     */
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            writeBuffer();
+            force();
+        } catch (IOException e) {
+            System.out.println("Failed to flush log file, exception: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                writeBuffer();
+                force();
+                channel.close();
+            } catch (IOException e) {
+                System.out.println("Failed to close log file, exception: " + e.getMessage());
+            }
+            closed = true;
+        }
+        flusher.shutdown();
+        // Let queued compressions finish so no rolled file is left half-gzipped
+        compressor.shutdown();
+        try {
+            if (!compressor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("Log compression did not finish in the specified time.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void setFormatter(LogFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    @Override
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+
+    private void encode(LogMessage logMessage) {
+        encoder.reset();
+        encoder.encode(logMessage, formatter);
+        int length = encoder.length();
+        try {
+            if (shouldRoll(length, logMessage.getTimestampMillis())) {
+                roll();
+            }
+            if (length > buffer.remaining()) {
+                writeBuffer();
+            }
+            if (length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(encoder.array(), 0, length));   // Oversized line, bypass the buffer
+            } else {
+                buffer.put(encoder.array(), 0, length);
+            }
+            fileSize += length;
+        } catch (IOException e) {
+            System.out.println("Failed to write logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    private void endOfBatch() {
+        if (flushIntervalMillis > 0) {
+            return;                             // The flusher writes the buffer on its next tick
+        }
+        try {
+            writeBuffer();
+            if (durability == DurabilityMode.BATCH) {
+                force();
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write logs to file, exception: " + e.getMessage());
+        }
+    }
+
+    private synchronized void onTimer() {
+        if (closed) {
+            return;
+        }
+        try {
+            if (shouldRoll(0, System.currentTimeMillis())) {
+                roll();
+            }
+            writeBuffer();
+            if (durability != DurabilityMode.NONE) {
+                force();
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to flush log file, exception: " + e.getMessage());
+        }
+    }
+
+    private boolean shouldRoll(int incomingBytes, long nowMillis) {
+        if (fileSize == 0) {
+            return false;                       // Never roll an empty file
+        }
+        return (maxFileSize > 0 && fileSize + incomingBytes > maxFileSize)
+                || (rollIntervalMillis > 0 && nowMillis >= nextRollAtMillis);
+    }
+
+    private void roll() throws IOException {
+        writeBuffer();
+        force();
+        channel.close();
+        Path rolled;
+        try {
+            rolled = moveToFreeName();
+        } catch (IOException e) {
+            openActiveFile();                   // Keep appending to the active file rather than losing writes
+            throw e;
+        }
+        openActiveFile();
+        if (compress) {
+            compressor.execute(() -> gzip(rolled));
+        }
+    }
+
+    // Renames the active file to <name>.<timestamp>.<n> with the lowest n not already taken, either plain or
+    // gzipped, so a restart within the same second does not collide with files rolled by the previous run
+    private Path moveToFreeName() throws IOException {
+        String prefix = file.getFileName() + "." + LocalDateTime.now().format(ROLL_SUFFIX) + ".";
+        for (int sequence = 1; ; sequence++) {
+            Path rolled = file.resolveSibling(prefix + sequence);
+            if (Files.exists(rolled) || Files.exists(rolled.resolveSibling(rolled.getFileName() + ".gz"))) {
+                continue;
+            }
+            try {
+                Files.move(file, rolled);       // Fails rather than replaces if the name was taken meanwhile
+                return rolled;
+            } catch (FileAlreadyExistsException e) {
+                // Taken between the probe and the move; try the next suffix
+            }
+        }
+    }
+
+    private void openActiveFile() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+        nextRollAtMillis = System.currentTimeMillis() + rollIntervalMillis;
+    }
+
+    private void writeBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        unforcedWrites = true;
+    }
+
+    private void force() throws IOException {
+        if (durability != DurabilityMode.NONE && unforcedWrites) {
+            channel.force(false);               // Data only; file metadata such as mtime is not needed
+            unforcedWrites = false;
+        }
+    }
+
+    private static void gzip(Path source) {
+        Path target = source.resolveSibling(source.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.out.println("Failed to compress rolled log file " + source + ", exception: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(source);
+        } catch (IOException e) {
+            System.out.println("Failed to delete rolled log file " + source + ", exception: " + e.getMessage());
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true); // Don't prevent JVM exit
+        return thread;
+    }
+
+    public static class Builder {
+        private Path file;
+        private int bufferSize = 256 * 1024;
+        private long maxFileSize;
+        private Duration rollInterval = Duration.ZERO;
+        private Duration flushInterval = Duration.ZERO;
+        private DurabilityMode durability = DurabilityMode.NONE;
+        private boolean compress;
+
+        public Builder withFile(Path file) {
+            this.file = file;
+            return this;
+        }
+
+        public Builder withBufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("Buffer size must be positive.");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Roll the file before it would grow past this many bytes. 0 disables size-based rolling.
+         */
+        public Builder withMaxFileSize(long maxFileSize) {
+            if (maxFileSize < 0) {
+                throw new IllegalArgumentException("Max file size must not be negative.");
+            }
+            this.maxFileSize = maxFileSize;
+            return this;
+        }
+
+        /**
+         * Roll the file this long after it was opened. Zero disables time-based rolling.
+         */
+        public Builder withRollInterval(Duration rollInterval) {
+            if (rollInterval.isNegative()) {
+                throw new IllegalArgumentException("Roll interval must not be negative.");
+            }
+            this.rollInterval = rollInterval;
+            return this;
+        }
+
+        /**
+         * Write buffered lines from a background thread at this interval instead of at the end of every
+         * batch. Zero (the default) writes at the end of every batch.
+         */
+        public Builder withFlushInterval(Duration flushInterval) {
+            if (flushInterval.isNegative()) {
+                throw new IllegalArgumentException("Flush interval must not be negative.");
+            }
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public Builder withDurability(DurabilityMode durability) {
+            this.durability = durability;
+            return this;
+        }
+
+        /**
+         * Gzip rolled files in the background.
+         */
+        public Builder withCompression(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        public RollingFileAppender build() {
+            if (file == null || durability == null) {
+                throw new IllegalStateException("Must set a file and a durability mode.");
+            }
+            if (durability == DurabilityMode.INTERVAL && flushInterval.isZero()) {
+                throw new IllegalStateException("INTERVAL durability requires a flush interval.");
+            }
+            return new RollingFileAppender(this);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package medium.loggingframework;
+
+public class SimpleTextFormatter implements LogFormatter {
+    @Override
+    public String format(LogMessage logMessage) {
+        StringBuilder out = new StringBuilder(128);
+        formatTo(logMessage, out);
+        return out.toString();
+    }
+
+    /**
+     * Same layout as before ("%s [%s] %s - %s: %s\n"), appended piece by piece instead of through
+     * String.format so the steady state creates no garbage.
+     */
+    @Override
+    public void formatTo(LogMessage logMessage, StringBuilder out) {
+        TimestampText.appendTo(logMessage.getTimestampMillis(), out);
+        out.append(" [").append(logMessage.getThreadName()).append("] ")
+                .append(logMessage.getLevel().name())
+                .append(" - ").append(logMessage.getLoggerName())
+                .append(": ").append(logMessage.getMessage())
+                .append('\n');
+    }
+}
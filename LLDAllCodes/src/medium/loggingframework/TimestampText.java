@@ -0,0 +1,40 @@
+package medium.loggingframework;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Appends "yyyy-MM-dd HH:mm:ss.SSS" timestamps without allocating.
+ *
+ * Each thread caches the text of the last second it formatted; within that second only the three
+ * millisecond digits change, so java.time is consulted (and allocates) at most once per second per thread.
+ */
+final class TimestampText {
+    private static final DateTimeFormatter SECONDS_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.");
+    private static final ThreadLocal<TimestampText> CACHE = ThreadLocal.withInitial(TimestampText::new);
+
+    private final char[] secondsText = new char[20];
+    private long cachedSecond = Long.MIN_VALUE;
+
+    private TimestampText() {}
+
+    static void appendTo(long epochMillis, StringBuilder out) {
+        CACHE.get().append(epochMillis, out);
+    }
+
+    private void append(long epochMillis, StringBuilder out) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+            SECONDS_FORMATTER.format(time).getChars(0, secondsText.length, secondsText, 0);
+            cachedSecond = second;
+        }
+        int millis = Math.floorMod(epochMillis, 1000);
+        out.append(secondsText)
+                .append((char) ('0' + millis / 100))
+                .append((char) ('0' + millis / 10 % 10))
+                .append((char) ('0' + millis % 10));
+    }
+}
@@ -0,0 +1,57 @@
+package medium.ratelimiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single theoretical arrival time (GCRA), so taking or returning a token is
+ * one atomic operation on one AtomicLong instead of a synchronized refill.
+ *
+ * The bucket is full when the arrival time is at or before now; each token pushes it one emission
+ * interval into the future, and a request is allowed while it stays within capacity intervals of now.
+ */
+class AtomicTokenBucket {
+    private final AtomicLong theoreticalArrivalNanos;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    AtomicTokenBucket(int capacity, int refillRatePerSecond, long nowNanos) {
+        if (capacity <= 0 || refillRatePerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive.");
+        }
+        this.emissionIntervalNanos = 1_000_000_000L / refillRatePerSecond;
+        this.burstToleranceNanos = capacity * emissionIntervalNanos;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Read-only check: would tryConsume() succeed right now? Lets a caller reject without writing.
+     */
+    boolean canConsume(long nowNanos) {
+        return nextArrival(theoreticalArrivalNanos.get(), nowNanos) - nowNanos <= burstToleranceNanos;
+    }
+
+    boolean tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long next = nextArrival(current, nowNanos);
+            if (next - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by tryConsume(). A refund that lands in the past only leaves the bucket
+     * full, because nextArrival() never starts before now.
+     */
+    void refund() {
+        theoreticalArrivalNanos.getAndAdd(-emissionIntervalNanos);
+    }
+
+    private long nextArrival(long current, long nowNanos) {
+        return Math.max(current, nowNanos) + emissionIntervalNanos;
+    }
+}
@@ -0,0 +1,152 @@
+package medium.ratelimiter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nested token buckets: one global bucket, one per tenant, one per user and one per endpoint of each
+ * user. A request is allowed only if every configured level has a token, and then takes one token
+ * from each, so a request rejected at the endpoint level does not use up tenant or global tokens.
+ *
+ * No locks are taken. Each level is an AtomicTokenBucket, and a request runs in two passes:
+ * - Check: read every bucket and reject if any is empty. Most rejections end here with no writes.
+ * - Consume: take a token from each bucket, narrowest level first. If a bucket runs dry in between
+ *   (another thread won the race), the tokens already taken are refunded and the request is rejected.
+ * An allowed request costs one CAS per level; a lost race costs at most one refund per level more.
+ * The busiest bucket, the global one, is consumed last, so it is rarely taken and then given back.
+ * Between a tentative take and its refund another request may briefly see one token fewer.
+ *
+ * Levels that have no limit configured are skipped, as are the tenant and endpoint levels when a
+ * request does not name a tenant or an endpoint.
+ */
+public class HierarchicalRateLimiter implements RateLimitingStrategy {
+    public enum Level {
+        GLOBAL, TENANT, USER, ENDPOINT
+    }
+
+    private final Map<Level, Limit> limits;
+    private final AtomicTokenBucket globalBucket;
+    private final Map<String, AtomicTokenBucket> tenantBuckets = new ConcurrentHashMap<>();
+    private final Map<String, UserBuckets> userBuckets = new ConcurrentHashMap<>();
+
+    private record Limit(int capacity, int refillRatePerSecond) {}
+
+    private static class UserBuckets {
+        final AtomicTokenBucket bucket;         // null if the user level has no limit
+        final Map<String, AtomicTokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+
+        UserBuckets(AtomicTokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private HierarchicalRateLimiter(Builder builder) {
+        this.limits = builder.limits;
+        this.globalBucket = newBucket(Level.GLOBAL, System.nanoTime());
+    }
+
+    /**
+     * Checks the global and user levels only.
+     */
+    @Override
+    public boolean allowRequest(String userId) {
+        return allowRequest(null, userId, null);
+    }
+
+    /**
+     * Checks every level on the path global -> tenant -> user -> endpoint and takes a token from each
+     * of them only if all of them allow the request.
+     */
+    @Override
+    public boolean allowRequest(String tenantId, String userId, String endpoint) {
+        long now = System.nanoTime();
+        UserBuckets user = userBuckets.get(userId);
+        if (user == null) {
+            user = userBuckets.computeIfAbsent(userId, id -> new UserBuckets(newBucket(Level.USER, now)));
+        }
+        // Narrowest level first, global last
+        AtomicTokenBucket endpointBucket = endpoint == null ? null : endpointBucket(user, endpoint, now);
+        AtomicTokenBucket tenantBucket = tenantId == null ? null : tenantBucket(tenantId, now);
+        AtomicTokenBucket userBucket = user.bucket;
+
+        if (!canConsume(endpointBucket, now) || !canConsume(userBucket, now)
+                || !canConsume(tenantBucket, now) || !canConsume(globalBucket, now)) {
+            return false;
+        }
+
+        if (!tryConsume(endpointBucket, now)) {
+            return false;
+        }
+        if (!tryConsume(userBucket, now)) {
+            refund(endpointBucket);
+            return false;
+        }
+        if (!tryConsume(tenantBucket, now)) {
+            refund(userBucket);
+            refund(endpointBucket);
+            return false;
+        }
+        if (!tryConsume(globalBucket, now)) {
+            refund(tenantBucket);
+            refund(userBucket);
+            refund(endpointBucket);
+            return false;
+        }
+        return true;
+    }
+
+    private AtomicTokenBucket tenantBucket(String tenantId, long now) {
+        if (!limits.containsKey(Level.TENANT)) {
+            return null;
+        }
+        AtomicTokenBucket bucket = tenantBuckets.get(tenantId);
+        return bucket != null ? bucket : tenantBuckets.computeIfAbsent(tenantId, id -> newBucket(Level.TENANT, now));
+    }
+
+    private AtomicTokenBucket endpointBucket(UserBuckets user, String endpoint, long now) {
+        if (!limits.containsKey(Level.ENDPOINT)) {
+            return null;
+        }
+        AtomicTokenBucket bucket = user.endpointBuckets.get(endpoint);
+        return bucket != null ? bucket : user.endpointBuckets.computeIfAbsent(endpoint, e -> newBucket(Level.ENDPOINT, now));
+    }
+
+    private AtomicTokenBucket newBucket(Level level, long now) {
+        Limit limit = limits.get(level);
+        return limit == null ? null : new AtomicTokenBucket(limit.capacity(), limit.refillRatePerSecond(), now);
+    }
+
+    private static boolean canConsume(AtomicTokenBucket bucket, long now) {
+        return bucket == null || bucket.canConsume(now);
+    }
+
+    private static boolean tryConsume(AtomicTokenBucket bucket, long now) {
+        return bucket == null || bucket.tryConsume(now);
+    }
+
+    private static void refund(AtomicTokenBucket bucket) {
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    public static class Builder {
+        private final Map<Level, Limit> limits = new EnumMap<>(Level.class);
+
+        public Builder withLimit(Level level, int capacity, int refillRatePerSecond) {
+            if (capacity <= 0 || refillRatePerSecond <= 0) {
+                throw new IllegalArgumentException("Capacity and refill rate must be positive.");
+            }
+            limits.put(level, new Limit(capacity, refillRatePerSecond));
+            return this;
+        }
+
+        public HierarchicalRateLimiter build() {
+            if (limits.isEmpty()) {
+                throw new IllegalStateException("At least one level must have a limit.");
+            }
+            return new HierarchicalRateLimiter(this);
+        }
+    }
+}
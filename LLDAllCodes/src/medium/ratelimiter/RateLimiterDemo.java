@@ -0,0 +1,85 @@
+package medium.ratelimiter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class RateLimiterDemo {
+    public static void main(String[] args) {
+        String userId = "user123";
+
+        System.out.println("=== Fixed Window Demo ===");
+        runFixedWindowDemo(userId);
+
+        System.out.println("\n=== Token Bucket Demo ===");
+        runTokenBucketDemo(userId);
+
+        System.out.println("\n=== Hierarchical Demo ===");
+        runHierarchicalDemo(userId);
+    }
+
+    private static void runFixedWindowDemo(String userId) {
+        int maxRequests = 5;
+        int windowSeconds = 10;
+
+        RateLimitingStrategy fixedWindowStrategy = new FixedWindowStrategy(maxRequests, windowSeconds);
+        RateLimiterService service = RateLimiterService.getInstance();
+        service.setRateLimitingStrategy(fixedWindowStrategy);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        for (int i = 0; i < 10; i++) {
+            executor.submit(() -> service.handleRequest(userId));
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        executor.shutdown();
+    }
+
+    private static void runTokenBucketDemo(String userId) {
+        int capacity = 5;
+        int refillRate = 1; // 1 token per second
+
+        RateLimitingStrategy tokenBucketStrategy = new TokenBucketStrategy(capacity, refillRate);
+        RateLimiterService service = RateLimiterService.getInstance();
+        service.setRateLimitingStrategy(tokenBucketStrategy);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Simulate 10 rapid requests
+        for (int i = 0; i < 10; i++) {
+            executor.submit(() -> service.handleRequest(userId));
+            try {
+                Thread.sleep(300); // faster than refill rate
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        executor.shutdown();
+    }
+
+    private static void runHierarchicalDemo(String userId) {
+        // Each endpoint allows 3 requests per user, the user 5 and the tenant 6, so the
+        // requests rejected for /search below leave tokens for /orders and user456
+        HierarchicalRateLimiter limiter = new HierarchicalRateLimiter.Builder()
+                .withLimit(HierarchicalRateLimiter.Level.GLOBAL, 100, 50)
+                .withLimit(HierarchicalRateLimiter.Level.TENANT, 6, 1)
+                .withLimit(HierarchicalRateLimiter.Level.USER, 5, 1)
+                .withLimit(HierarchicalRateLimiter.Level.ENDPOINT, 3, 1)
+                .build();
+        RateLimiterService service = RateLimiterService.getInstance();
+        service.setRateLimitingStrategy(limiter);
+
+        for (int i = 0; i < 5; i++) {
+            service.handleRequest("acme", userId, "/search");
+        }
+        service.handleRequest("acme", userId, "/orders");
+        service.handleRequest("acme", userId, "/orders");
+        service.handleRequest("acme", "user456", "/search");
+        service.handleRequest("acme", "user456", "/search");
+    }
+}
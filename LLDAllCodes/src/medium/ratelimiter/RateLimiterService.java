@@ -0,0 +1,36 @@
+package medium.ratelimiter;
+
+public class RateLimiterService {
+    private static RateLimiterService instance;
+    private RateLimitingStrategy rateLimitingStrategy;
+
+    private RateLimiterService() {}
+
+    public static synchronized RateLimiterService getInstance() {
+        if (instance == null) {
+            instance = new RateLimiterService();
+        }
+        return instance;
+    }
+
+    public void setRateLimitingStrategy(RateLimitingStrategy rateLimitingStrategy) {
+        this.rateLimitingStrategy = rateLimitingStrategy;
+    }
+
+    public void handleRequest(String userId) {
+        if (rateLimitingStrategy.allowRequest(userId)) {
+            System.out.println("Request from user " + userId + " is allowed");
+        } else {
+            System.out.println("Request from user " + userId + " is rejected: Rate limit exceeded");
+        }
+    }
+
+    public void handleRequest(String tenantId, String userId, String endpoint) {
+        if (rateLimitingStrategy.allowRequest(tenantId, userId, endpoint)) {
+            System.out.println("Request from user " + userId + " (" + tenantId + ") to " + endpoint + " is allowed");
+        } else {
+            System.out.println("Request from user " + userId + " (" + tenantId + ") to " + endpoint
+                    + " is rejected: Rate limit exceeded");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package medium.ratelimiter;
+
+public interface RateLimitingStrategy {
+    boolean allowRequest(String userId);
+
+    /**
+     * Limits a request that also names its tenant and endpoint. Per-user strategies ignore both.
+     */
+    default boolean allowRequest(String tenantId, String userId, String endpoint) {
+        return allowRequest(userId);
+    }
+}
@@ -4,6 +4,8 @@ import org.nailyourinterview.lld.logger.appenders.LogAppender;
 import org.nailyourinterview.lld.logger.enums.LogLevel;
 import org.nailyourinterview.lld.logger.handlers.*;
 
+import java.util.Arrays;
+
 
 public class LogHandlerConfiguration {
 
@@ -13,6 +15,10 @@ public class LogHandlerConfiguration {
     private static final LogHandler error = new ErrorHandler();
     private static final LogHandler fatal = new FatalHandler();
 
+    // Same routing as the chain, precomputed: appendersByLevel[level.ordinal()] lists the appenders for
+    // that level. Copied on write, so readers never lock.
+    private static volatile LogAppender[][] appendersByLevel = new LogAppender[LogLevel.values().length][0];
+
     public static LogHandler build(){
         debug.setNext(info);
         info.setNext(warn);
@@ -22,13 +28,27 @@ public class LogHandlerConfiguration {
         return debug;
     }
 
-    public static void addAppenderForLevel(LogLevel level, LogAppender appender) {
+    public static synchronized void addAppenderForLevel(LogLevel level, LogAppender appender) {
         switch (level) {
             case DEBUG -> debug.subscribe(appender);
             case INFO  -> info.subscribe(appender);
             case WARN  -> warn.subscribe(appender);
             case ERROR -> error.subscribe(appender);
             case FATAL -> fatal.subscribe(appender);
+            default -> {
+                return; // No handler in the chain for this level, so don't route it in the index either
+            }
         }
+
+        LogAppender[][] updated = appendersByLevel.clone();
+        LogAppender[] current = updated[level.ordinal()];
+        LogAppender[] withNew = Arrays.copyOf(current, current.length + 1);
+        withNew[current.length] = appender;
+        updated[level.ordinal()] = withNew;
+        appendersByLevel = updated;
+    }
+
+    public static LogAppender[] appendersFor(LogLevel level) {
+        return appendersByLevel[level.ordinal()];
     }
 }
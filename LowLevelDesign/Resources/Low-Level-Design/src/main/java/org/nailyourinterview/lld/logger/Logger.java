@@ -1,5 +1,8 @@
 package org.nailyourinterview.lld.logger;
 
+import lombok.Setter;
+import org.nailyourinterview.lld.logger.appenders.LogAppender;
+import org.nailyourinterview.lld.logger.enums.DispatchMode;
 import org.nailyourinterview.lld.logger.enums.LogLevel;
 import org.nailyourinterview.lld.logger.handlers.*;
 import org.nailyourinterview.lld.logger.model.LogMessage;
@@ -8,6 +11,8 @@ class Logger {
     private static final Logger INSTANCE = new Logger();
 
     private final LogHandler handlerChain;
+    @Setter
+    private volatile DispatchMode dispatchMode = DispatchMode.CHAIN;
 
     private Logger() {
         handlerChain = LogHandlerConfiguration.build();
@@ -18,6 +23,17 @@ class Logger {
     }
 
     public void log(LogLevel level, String message) {
+        if (dispatchMode == DispatchMode.LEVEL_INDEXED) {
+            LogAppender[] appenders = LogHandlerConfiguration.appendersFor(level);
+            if (appenders.length == 0) {
+                return; // Nobody listens at this level, skip building the message
+            }
+            LogMessage msg = new LogMessage(level, message, System.currentTimeMillis());
+            for (LogAppender appender : appenders) {
+                appender.append(msg);
+            }
+            return;
+        }
         LogMessage msg = new LogMessage(level, message, System.currentTimeMillis());
         handlerChain.handle(msg);
     }
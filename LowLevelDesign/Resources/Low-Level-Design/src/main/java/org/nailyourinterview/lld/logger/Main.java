@@ -1,13 +1,16 @@
 package org.nailyourinterview.lld.logger;
 
+import org.nailyourinterview.lld.logger.appenders.AsyncAppender;
 import org.nailyourinterview.lld.logger.appenders.ConsoleAppender;
 import org.nailyourinterview.lld.logger.appenders.FileAppender;
+import org.nailyourinterview.lld.logger.enums.DispatchMode;
 import org.nailyourinterview.lld.logger.enums.LogLevel;
 import org.nailyourinterview.lld.logger.formatter.PlainTextFormatter;
 
 public class Main {
     public static void main(String[] args) {
         Logger logger = Logger.getInstance();
+        logger.setDispatchMode(DispatchMode.LEVEL_INDEXED); // O(1) routing instead of walking the chain
 
         LogHandlerConfiguration.addAppenderForLevel(
                 LogLevel.INFO,
@@ -19,13 +22,14 @@ public class Main {
                 new ConsoleAppender(new PlainTextFormatter())
         );
 
-        LogHandlerConfiguration.addAppenderForLevel(
-                LogLevel.ERROR,
-                new FileAppender(new PlainTextFormatter(), "logs.txt")
-        );
+        // The file gets its own queue and worker, so a slow disk never blocks the caller
+        AsyncAppender fileAppender = new AsyncAppender(new FileAppender(new PlainTextFormatter(), "logs.txt"), 1024);
+        LogHandlerConfiguration.addAppenderForLevel(LogLevel.ERROR, fileAppender);
 
         // Usage
         logger.info("This is some key information"); // CONSOLE
         logger.error("Oh no! there's an error"); // CONSOLE + FILE
+
+        fileAppender.close(); // Writes what is still queued
     }
 }
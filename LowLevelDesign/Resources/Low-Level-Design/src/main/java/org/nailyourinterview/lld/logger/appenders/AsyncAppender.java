@@ -0,0 +1,102 @@
+package org.nailyourinterview.lld.logger.appenders;
+
+import org.nailyourinterview.lld.logger.model.LogMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that gives an appender its own bounded queue and worker thread.
+ *
+ * append() only enqueues, so a slow sink (e.g. a file on a busy disk) can't block the calling thread or
+ * the other appenders. When the queue is full the message is dropped and counted instead of blocking.
+ * The worker drains the queue in batches and hands each batch to the delegate's appendBatch().
+ */
+public class AsyncAppender implements LogAppender {
+    private static final int MAX_BATCH = 256;
+
+    private final LogAppender delegate;
+    private final BlockingQueue<LogMessage> queue;
+    private final LongAdder droppedCount = new LongAdder();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public AsyncAppender(LogAppender delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::drain, "async-" + delegate.getClass().getSimpleName());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void append(LogMessage message) {
+        if (!running || !queue.offer(message)) {
+            droppedCount.increment();
+            return;
+        }
+        // close() may have run between the check and the offer, after the worker's last look at the queue.
+        // Whoever removes the message (this thread, the worker or close()) accounts for it exactly once.
+        if (!running && queue.remove(message)) {
+            droppedCount.increment();
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    // Stops accepting messages, writes what is already queued and closes the delegate once the worker has
+    // exited. If the worker is still writing after the timeout, the delegate is left open for it.
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            System.err.println(worker.getName() + " did not finish within 2 s; leaving its appender open");
+        } else {
+            // Messages enqueued after the worker's final isEmpty() check are never written
+            List<LogMessage> leftovers = new ArrayList<>();
+            queue.drainTo(leftovers);
+            droppedCount.add(leftovers.size());
+            delegate.close();
+        }
+        long dropped = getDroppedCount();
+        if (dropped > 0) {
+            System.err.println(worker.getName() + " dropped " + dropped + " log messages (queue full or closed)");
+        }
+    }
+
+    private void drain() {
+        List<LogMessage> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                LogMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                delegate.appendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
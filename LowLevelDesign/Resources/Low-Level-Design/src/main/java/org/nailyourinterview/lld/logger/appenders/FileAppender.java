@@ -3,6 +3,7 @@ package org.nailyourinterview.lld.logger.appenders;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 import org.nailyourinterview.lld.logger.model.LogMessage;
 import org.nailyourinterview.lld.logger.formatter.LogFormatter;
 
@@ -39,6 +40,21 @@ public class FileAppender implements LogAppender {
     // blocking queue of cap = 3
     // 3 worker threads
 
+    // Used by AsyncAppender: one flush for the whole batch instead of one per line
+    @Override
+    public synchronized void appendBatch(List<LogMessage> messages) {
+        try {
+            for (LogMessage message : messages) {
+                writer.write(formatter.format(message));
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
     public synchronized void close() {
         try {
             writer.close();
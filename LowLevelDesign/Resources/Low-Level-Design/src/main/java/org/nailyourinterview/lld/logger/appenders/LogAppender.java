@@ -2,6 +2,18 @@ package org.nailyourinterview.lld.logger.appenders;
 
 import org.nailyourinterview.lld.logger.model.LogMessage;
 
+import java.util.List;
+
 public interface LogAppender {
     void append(LogMessage message);
-}
\ No newline at end of file
+
+    // Appenders with a per-write cost (e.g. flush) override this to pay it once per batch
+    default void appendBatch(List<LogMessage> messages) {
+        for (LogMessage message : messages) {
+            append(message);
+        }
+    }
+
+    default void close() {
+    }
+}
@@ -0,0 +1,6 @@
+package org.nailyourinterview.lld.logger.enums;
+
+public enum DispatchMode {
+    CHAIN,          // Walk the DebugHandler -> ... -> FatalHandler chain for every message
+    LEVEL_INDEXED   // Look the appenders up in a LogLevel-indexed array, O(1) per message
+}
@@ -7,18 +7,71 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 
+/**
+ * Writes each field straight into the output builder (no String.format, no per-field strings), and
+ * escapes the message so the line is always valid JSON. The timestamp text is cached per thread and only
+ * re-formatted when the second changes.
+ */
 public class JsonFormatter implements LogFormatter {
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<CachedSecond> LAST_SECOND = ThreadLocal.withInitial(CachedSecond::new);
+
+    private static final class CachedSecond {
+        long epochSecond = Long.MIN_VALUE;
+        String text;
+    }
 
     @Override
     public String format(LogMessage message) {
-        String formattedTime = LocalDateTime.ofInstant(
-                Instant.ofEpochMilli(message.getTimestamp()),
-                ZoneId.systemDefault()
-        ).format(FORMATTER);
+        StringBuilder out = new StringBuilder(96);
+        formatTo(message, out);
+        return out.toString();
+    }
+
+    @Override
+    public void formatTo(LogMessage message, StringBuilder out) {
+        out.append("{\"timestamp\": \"");
+        appendTimestamp(message.getTimestamp(), out);
+        out.append("\", \"level\": \"").append(message.getLevel().name())
+                .append("\", \"message\": \"");
+        appendEscaped(message.getMessage(), out);
+        out.append("\"}");
+    }
+
+    private static void appendTimestamp(long epochMillis, StringBuilder out) {
+        CachedSecond cached = LAST_SECOND.get();
+        long epochSecond = Math.floorDiv(epochMillis, 1000);
+        if (epochSecond != cached.epochSecond) {
+            cached.text = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault())
+                    .format(FORMATTER);
+            cached.epochSecond = epochSecond;
+        }
+        out.append(cached.text);
+    }
 
-        return String.format("{\"timestamp\": %s, \"level\": \"%s\", \"message\": \"%s\"}",
-                formattedTime, message.getLevel(), message.getMessage());
+    private static void appendEscaped(String value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
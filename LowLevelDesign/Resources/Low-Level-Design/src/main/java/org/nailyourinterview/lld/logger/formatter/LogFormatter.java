@@ -4,4 +4,9 @@ import org.nailyourinterview.lld.logger.model.LogMessage;
 
 public interface LogFormatter {
     String format(LogMessage message);
-}
\ No newline at end of file
+
+    // Streaming variant: appends to the caller's builder instead of returning a new String
+    default void formatTo(LogMessage message, StringBuilder out) {
+        out.append(format(message));
+    }
+}
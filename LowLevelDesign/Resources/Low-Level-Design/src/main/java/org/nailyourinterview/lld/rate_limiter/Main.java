@@ -1,6 +1,7 @@
 package org.nailyourinterview.lld.rate_limiter;
 
 import org.nailyourinterview.lld.rate_limiter.enums.UserTier;
+import org.nailyourinterview.lld.rate_limiter.model.RequestContext;
 import org.nailyourinterview.lld.rate_limiter.model.User;
 import org.nailyourinterview.lld.rate_limiter.service.RateLimiterService;
 
@@ -42,6 +43,20 @@ public class Main {
         executor.shutdown();
     }
 
+    // endpoint limit (5) rejects /search, but the free user's tier limit (10) is only charged for allowed requests
+    static void checkHierarchy(RateLimiterService rateLimiterService) {
+        User freeUser = new User("user3", UserTier.FREE);
+
+        for (int i = 1; i <= 8; i++) {
+            boolean allowed = rateLimiterService.allowRequest(new RequestContext("acme", freeUser, "/search"));
+            System.out.println("Request " + i + " to /search: " + (allowed ? "ALLOWED" : "BLOCKED"));
+        }
+        for (int i = 1; i <= 6; i++) {
+            boolean allowed = rateLimiterService.allowRequest(new RequestContext("acme", freeUser, "/orders"));
+            System.out.println("Request " + i + " to /orders: " + (allowed ? "ALLOWED" : "BLOCKED"));
+        }
+    }
+
     public static void main(String[] args) throws InterruptedException {
         RateLimiterService rateLimiterService = new RateLimiterService();
 
@@ -63,5 +78,8 @@ public class Main {
 //        }
 
         checkConcurrency(rateLimiterService);
+
+        System.out.println("\n=== Hierarchical Limits ===");
+        checkHierarchy(rateLimiterService);
     }
 }
\ No newline at end of file
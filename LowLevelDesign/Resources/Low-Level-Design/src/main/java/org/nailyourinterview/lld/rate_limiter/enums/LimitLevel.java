@@ -0,0 +1,11 @@
+package org.nailyourinterview.lld.rate_limiter.enums;
+
+/**
+ * Levels of a HierarchicalRateLimiter, from the widest to the narrowest.
+ */
+public enum LimitLevel {
+    GLOBAL,
+    TENANT,
+    USER,
+    ENDPOINT
+}
@@ -10,6 +10,7 @@ public class RateLimiterFactory {
             case TOKEN_BUCKET -> new TokenBucketRateLimiter(config);
             case FIXED_WINDOW -> new FixedWindowRateLimiter(config);
             case SLIDING_WINDOW_LOG -> new SlidingWindowLogRateLimiter(config);
+            case SLIDING_WINDOW_COUNTER -> new SlidingWindowCounterRateLimiter(config);
             default -> throw new IllegalArgumentException("Unknown algorithm: " + algo);
         };
     }
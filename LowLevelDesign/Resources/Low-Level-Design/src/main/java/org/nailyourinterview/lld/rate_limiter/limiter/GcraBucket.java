@@ -0,0 +1,51 @@
+package org.nailyourinterview.lld.rate_limiter.limiter;
+
+import org.nailyourinterview.lld.rate_limiter.model.RateLimitConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket stored as one theoretical arrival time (GCRA): maxRequests tokens that refill evenly
+ * over windowInSeconds. Taking a token is one CAS and returning it is one atomic add, with no lock.
+ */
+class GcraBucket {
+    private final AtomicLong theoreticalArrivalNanos;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    GcraBucket(RateLimitConfig config, long nowNanos) {
+        if (config.getMaxRequests() <= 0 || config.getWindowInSeconds() <= 0) {
+            throw new IllegalArgumentException("Max requests and window must be positive.");
+        }
+        this.emissionIntervalNanos = config.getWindowInSeconds() * 1_000_000_000L / config.getMaxRequests();
+        this.burstToleranceNanos = config.getMaxRequests() * emissionIntervalNanos;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    // Read-only: would tryConsume() succeed right now?
+    boolean canConsume(long nowNanos) {
+        return nextArrival(theoreticalArrivalNanos.get(), nowNanos) - nowNanos <= burstToleranceNanos;
+    }
+
+    boolean tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long next = nextArrival(current, nowNanos);
+            if (next - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    // Undo a successful tryConsume(). Going below now just means "full": nextArrival() clamps to now.
+    void refund() {
+        theoreticalArrivalNanos.getAndAdd(-emissionIntervalNanos);
+    }
+
+    private long nextArrival(long current, long nowNanos) {
+        return Math.max(current, nowNanos) + emissionIntervalNanos;
+    }
+}
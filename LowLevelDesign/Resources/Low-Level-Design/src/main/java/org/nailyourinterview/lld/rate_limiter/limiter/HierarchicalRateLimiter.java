@@ -0,0 +1,126 @@
+package org.nailyourinterview.lld.rate_limiter.limiter;
+
+import org.nailyourinterview.lld.rate_limiter.enums.LimitLevel;
+import org.nailyourinterview.lld.rate_limiter.enums.UserTier;
+import org.nailyourinterview.lld.rate_limiter.model.RateLimitConfig;
+import org.nailyourinterview.lld.rate_limiter.model.RequestContext;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Composite limiter over nested limits: global -> tenant -> user -> endpoint (per user).
+ *
+ * A request is allowed only if every level allows it, and only then is it charged at every level,
+ * so a request rejected for its endpoint does not burn tenant or global tokens.
+ *
+ * Each level is a lock-free GcraBucket. A request is evaluated in two passes:
+ * 1. Check every bucket without writing; most rejections stop here.
+ * 2. Tentatively consume from each bucket, narrowest first and global last. If one fails because a
+ *    concurrent request took the last token, the buckets already charged are refunded.
+ * That is one CAS per level for an allowed request and at most one extra atomic add per level when a
+ * race is lost - no lock at any level.
+ *
+ * The user level uses the limit of the user's tier, falling back to the USER limit. Levels with no
+ * limit, and tenant/endpoint levels for requests that do not name one, are skipped.
+ */
+public class HierarchicalRateLimiter {
+    private final Map<LimitLevel, RateLimitConfig> limits;
+    private final Map<UserTier, RateLimitConfig> tierLimits;
+    private final GcraBucket globalBucket;
+    private final Map<String, GcraBucket> tenantBuckets = new ConcurrentHashMap<>();
+    private final Map<String, UserBuckets> userBuckets = new ConcurrentHashMap<>();
+
+    private static final class UserBuckets {
+        final GcraBucket bucket;                // null if the user has no limit
+        final Map<String, GcraBucket> endpointBuckets = new ConcurrentHashMap<>();
+
+        UserBuckets(GcraBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    public HierarchicalRateLimiter(Map<LimitLevel, RateLimitConfig> limits, Map<UserTier, RateLimitConfig> tierLimits) {
+        this.limits = new EnumMap<>(LimitLevel.class);
+        this.limits.putAll(limits);
+        this.tierLimits = new EnumMap<>(UserTier.class);
+        this.tierLimits.putAll(tierLimits);
+        this.globalBucket = newBucket(this.limits.get(LimitLevel.GLOBAL), System.nanoTime());
+    }
+
+    public boolean allowRequest(RequestContext request) {
+        long now = System.nanoTime();
+        UserBuckets user = userBuckets.get(request.getUser().getUserId());
+        if (user == null) {
+            RateLimitConfig userLimit = tierLimits.getOrDefault(request.getUser().getTier(), limits.get(LimitLevel.USER));
+            user = userBuckets.computeIfAbsent(request.getUser().getUserId(), id -> new UserBuckets(newBucket(userLimit, now)));
+        }
+        GcraBucket endpointBucket = endpointBucket(user, request.getEndpoint(), now);
+        GcraBucket userBucket = user.bucket;
+        GcraBucket tenantBucket = tenantBucket(request.getTenantId(), now);
+
+        // Pass 1: read-only check, so an over-limit caller never touches the shared buckets
+        if (!canConsume(endpointBucket, now) || !canConsume(userBucket, now)
+                || !canConsume(tenantBucket, now) || !canConsume(globalBucket, now)) {
+            return false;
+        }
+
+        // Pass 2: charge narrowest first, roll back on a lost race
+        if (!tryConsume(endpointBucket, now)) {
+            return false;
+        }
+        if (!tryConsume(userBucket, now)) {
+            refund(endpointBucket);
+            return false;
+        }
+        if (!tryConsume(tenantBucket, now)) {
+            refund(userBucket);
+            refund(endpointBucket);
+            return false;
+        }
+        if (!tryConsume(globalBucket, now)) {
+            refund(tenantBucket);
+            refund(userBucket);
+            refund(endpointBucket);
+            return false;
+        }
+        return true;
+    }
+
+    private GcraBucket tenantBucket(String tenantId, long now) {
+        RateLimitConfig limit = limits.get(LimitLevel.TENANT);
+        if (tenantId == null || limit == null) {
+            return null;
+        }
+        GcraBucket bucket = tenantBuckets.get(tenantId);
+        return bucket != null ? bucket : tenantBuckets.computeIfAbsent(tenantId, id -> newBucket(limit, now));
+    }
+
+    private GcraBucket endpointBucket(UserBuckets user, String endpoint, long now) {
+        RateLimitConfig limit = limits.get(LimitLevel.ENDPOINT);
+        if (endpoint == null || limit == null) {
+            return null;
+        }
+        GcraBucket bucket = user.endpointBuckets.get(endpoint);
+        return bucket != null ? bucket : user.endpointBuckets.computeIfAbsent(endpoint, e -> newBucket(limit, now));
+    }
+
+    private static GcraBucket newBucket(RateLimitConfig limit, long now) {
+        return limit == null ? null : new GcraBucket(limit, now);
+    }
+
+    private static boolean canConsume(GcraBucket bucket, long now) {
+        return bucket == null || bucket.canConsume(now);
+    }
+
+    private static boolean tryConsume(GcraBucket bucket, long now) {
+        return bucket == null || bucket.tryConsume(now);
+    }
+
+    private static void refund(GcraBucket bucket) {
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.nailyourinterview.lld.rate_limiter.limiter;
+
+import org.nailyourinterview.lld.rate_limiter.enums.RateLimitType;
+import org.nailyourinterview.lld.rate_limiter.model.RateLimitConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sliding window counter: approximates the sliding window log with two counters per user.
+ *
+ * Time is split into fixed windows (millisecond precision). A request is allowed if
+ *   previousCount * (fraction of the previous window still inside the sliding window) + currentCount
+ * is below maxRequests. This assumes requests in the previous window were evenly spread, which keeps the
+ * error to a few percent in practice, while memory per user is constant (no timestamp per request).
+ */
+public class SlidingWindowCounterRateLimiter extends RateLimiter {
+    private final Map<String, WindowCounter> counters = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    private static final class WindowCounter {
+        long windowIndex;   // now / windowMillis of the window currentCount belongs to
+        int previousCount;
+        int currentCount;
+    }
+
+    public SlidingWindowCounterRateLimiter(RateLimitConfig config) {
+        super(config, RateLimitType.SLIDING_WINDOW_COUNTER);
+        this.windowMillis = config.getWindowInSeconds() * 1000L;
+    }
+
+    @Override
+    public boolean allowRequest(String userId) {
+        WindowCounter counter = counters.get(userId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(userId, id -> new WindowCounter());
+        }
+
+        // Per-user lock: only requests of the same user wait for each other
+        synchronized (counter) {
+            // Read the clock under the lock, so a thread that was delayed before entering can't carry an
+            // older window in and slide the counter backwards
+            long now = System.currentTimeMillis();
+            long windowIndex = now / windowMillis;
+            if (windowIndex > counter.windowIndex) {
+                // Slide: the old current window becomes the previous one, unless a whole window was skipped
+                counter.previousCount = windowIndex == counter.windowIndex + 1 ? counter.currentCount : 0;
+                counter.currentCount = 0;
+                counter.windowIndex = windowIndex;
+            } else if (windowIndex < counter.windowIndex) {
+                // The wall clock stepped back; keep counting against the current window
+                now = counter.windowIndex * windowMillis;
+            }
+
+            double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+            double estimatedCount = counter.previousCount * previousWeight + counter.currentCount;
+            if (estimatedCount + 1 > config.getMaxRequests()) {
+                return false;
+            }
+            counter.currentCount++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.nailyourinterview.lld.rate_limiter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Who is calling what: the keys a HierarchicalRateLimiter looks up at each level.
+ */
+@Getter
+@AllArgsConstructor
+public class RequestContext {
+    private final String tenantId;
+    private final User user;
+    private final String endpoint;
+}
@@ -1,10 +1,13 @@
 package org.nailyourinterview.lld.rate_limiter.service;
 
+import org.nailyourinterview.lld.rate_limiter.enums.LimitLevel;
 import org.nailyourinterview.lld.rate_limiter.enums.RateLimitType;
 import org.nailyourinterview.lld.rate_limiter.enums.UserTier;
 import org.nailyourinterview.lld.rate_limiter.factory.RateLimiterFactory;
+import org.nailyourinterview.lld.rate_limiter.limiter.HierarchicalRateLimiter;
 import org.nailyourinterview.lld.rate_limiter.limiter.RateLimiter;
 import org.nailyourinterview.lld.rate_limiter.model.RateLimitConfig;
+import org.nailyourinterview.lld.rate_limiter.model.RequestContext;
 import org.nailyourinterview.lld.rate_limiter.model.User;
 
 import java.util.HashMap;
@@ -12,6 +15,7 @@ import java.util.Map;
 
 public class RateLimiterService {
     private final Map<UserTier, RateLimiter> rateLimiters = new HashMap<>();
+    private final HierarchicalRateLimiter hierarchicalRateLimiter;
 
     public RateLimiterService() {
         // Configure per-tier limits + algorithms
@@ -30,6 +34,19 @@ public class RateLimiterService {
                         new RateLimitConfig(100, 60) // 100 req/min
                 )
         );
+
+        // Nested limits for tenant-aware requests; users keep their tier limit
+        hierarchicalRateLimiter = new HierarchicalRateLimiter(
+                Map.of(
+                        LimitLevel.GLOBAL, new RateLimitConfig(10_000, 60),
+                        LimitLevel.TENANT, new RateLimitConfig(1_000, 60),
+                        LimitLevel.ENDPOINT, new RateLimitConfig(5, 60) // per user per endpoint
+                ),
+                Map.of(
+                        UserTier.FREE, new RateLimitConfig(10, 60),
+                        UserTier.PREMIUM, new RateLimitConfig(100, 60)
+                )
+        );
     }
 
     public boolean allowRequest(User user) {
@@ -39,4 +56,12 @@ public class RateLimiterService {
         }
         return limiter.allowRequest(user.getUserId());
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks the global, tenant, user and endpoint limits together: the request is charged at every
+     * level or at none of them.
+     */
+    public boolean allowRequest(RequestContext request) {
+        return hierarchicalRateLimiter.allowRequest(request);
+    }
+}
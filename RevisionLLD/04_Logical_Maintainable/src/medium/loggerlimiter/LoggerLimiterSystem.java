@@ -1,9 +1,17 @@
 package medium.loggerlimiter;
 
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 class LoggerLimiterSystem {
 }
@@ -85,16 +93,28 @@ class TextFormatter implements Logformatter {
 
 interface Logger {
     void log(LogLevel level, String message);
+
+    /**
+     * Logs a "{}" template. The template (not the formatted text) identifies the callsite for rate limiting,
+     * and the arguments are only formatted if the line is let through.
+     */
+    void log(LogLevel level, String template, Object... args);
 }
 
 class CustomLogger implements Logger {
 
+    private String name;
     private LogLevel minimumLoglevel;
     private LogAppender logAppender;
     private Logformatter logformatter;
     private RateLimiter rateLimiter;
 
     public CustomLogger(LogAppender logAppender, Logformatter logformatter, LogLevel logLevelPriority, RateLimiter rateLimiter) {
+        this("root", logAppender, logformatter, logLevelPriority, rateLimiter);
+    }
+
+    public CustomLogger(String name, LogAppender logAppender, Logformatter logformatter, LogLevel logLevelPriority, RateLimiter rateLimiter) {
+        this.name = name;
         this.logAppender = logAppender;
         this.logformatter = logformatter;
         this.minimumLoglevel = logLevelPriority;
@@ -103,25 +123,50 @@ class CustomLogger implements Logger {
 
     @Override
     public void log(LogLevel level, String message) {
+        log(level, message, (Object[]) null);
+    }
+
+    @Override
+    public void log(LogLevel level, String template, Object... args) {
 
         if (level.getPriority() < minimumLoglevel.getPriority()) {
             return;
         }
 
-        if (!rateLimiter.allow(level)) {
-            System.out.println("Rate limit exceed for the " + level);
+        // Dropped lines are not reported one by one (that would be the flood again); see CallsiteRateLimiter
+        if (!rateLimiter.allow(level, name, template)) {
             return;
         }
 
-        LogMessage logMessage = new LogMessage(message, level);
+        LogMessage logMessage = new LogMessage(args == null ? template : substitute(template, args), level);
         String formatterLog = logformatter.format(logMessage);
         logAppender.append(formatterLog);
 
     }
+
+    private static String substitute(String template, Object[] args) {
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = template.indexOf("{}", start)) >= 0) {
+            sb.append(template, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        return sb.append(template, start, template.length()).toString();
+    }
 }
 
 interface RateLimiter {
     boolean allow(LogLevel level);
+
+    /**
+     * Decides for one callsite, i.e. a logger and a message template. Limiters that only look at the
+     * level ignore the rest.
+     */
+    default boolean allow(LogLevel level, String loggerName, String template) {
+        return allow(level);
+    }
 }
 
 class RateLimiterConfig {
@@ -202,6 +247,182 @@ class TokenBucketRateLimiter implements RateLimiter {
     }
 }
 
+/**
+ * Rate limits each callsite (logger name + message template) separately, so one hot line cannot use up
+ * the budget of rarer, more useful ones.
+ *
+ * - Every callsite gets its own token bucket, sized by the config of its level. Levels without a config
+ *   are not limited.
+ * - The number of callsites is bounded: once maxCallsites exist, new callsites of a level share one
+ *   overflow bucket. Callsites whose bucket is full again and that have nothing to report are removed
+ *   on each summary pass.
+ * - Every summaryIntervalMillis, each callsite that dropped lines reports once:
+ *   "[WARN] suppressed 48,211 similar messages: <logger> - <template>".
+ * - DEBUG lines are first sampled with debugSampleRate; only the sampled ones reach the bucket.
+ *
+ * The hot path takes no lock: a map lookup, a random draw for DEBUG, one CAS on the bucket's theoretical
+ * arrival time (GCRA) and, for a dropped line, one LongAdder increment.
+ */
+class CallsiteRateLimiter implements RateLimiter {
+
+    private final Map<LogLevel, RateLimiterConfig> configs;
+    private final Map<String, Map<String, CallsiteBucket>> callsites = new ConcurrentHashMap<>();
+    private final Map<LogLevel, CallsiteBucket> overflowBuckets = new EnumMap<>(LogLevel.class);
+    private final AtomicInteger callsiteCount = new AtomicInteger();
+    private final LongAdder sampledOut = new LongAdder();
+    private final int maxCallsites;
+    private final double debugSampleRate;
+    private final LogAppender summaryAppender;
+    private final ScheduledExecutorService summaryScheduler;
+
+    public CallsiteRateLimiter(Map<LogLevel, RateLimiterConfig> configs, int maxCallsites, double debugSampleRate,
+                               LogAppender summaryAppender, long summaryIntervalMillis) {
+        if (maxCallsites <= 0) {
+            throw new IllegalArgumentException("maxCallsites must be positive");
+        }
+        if (debugSampleRate < 0 || debugSampleRate > 1) {
+            throw new IllegalArgumentException("debugSampleRate must be between 0 and 1");
+        }
+        this.configs = new EnumMap<>(configs);
+        this.maxCallsites = maxCallsites;
+        this.debugSampleRate = debugSampleRate;
+        this.summaryAppender = summaryAppender;
+        for (Map.Entry<LogLevel, RateLimiterConfig> entry : this.configs.entrySet()) {
+            overflowBuckets.put(entry.getKey(), new CallsiteBucket(entry.getValue(), entry.getKey(), "*", "other callsites"));
+        }
+        this.summaryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "log-suppression-summary");
+            t.setDaemon(true);
+            return t;
+        });
+        summaryScheduler.scheduleAtFixedRate(this::emitSummaries, summaryIntervalMillis, summaryIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean allow(LogLevel level) {
+        return allow(level, "root", "");
+    }
+
+    @Override
+    public boolean allow(LogLevel level, String loggerName, String template) {
+        if (level == LogLevel.DEBUG && debugSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= debugSampleRate) {
+            sampledOut.increment();
+            return false;
+        }
+        RateLimiterConfig config = configs.get(level);
+        if (config == null) {
+            return true;
+        }
+        CallsiteBucket bucket = bucket(level, config, loggerName, template);
+        if (bucket.tryAcquire()) {
+            return true;
+        }
+        bucket.suppressed.increment();
+        return false;
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    public int getCallsiteCount() {
+        return callsiteCount.get();
+    }
+
+    public void shutdown() {
+        summaryScheduler.shutdown();
+        emitSummaries();
+    }
+
+    private CallsiteBucket bucket(LogLevel level, RateLimiterConfig config, String loggerName, String template) {
+        Map<String, CallsiteBucket> templates = callsites.get(loggerName);
+        if (templates == null) {
+            templates = callsites.computeIfAbsent(loggerName, k -> new ConcurrentHashMap<>());
+        }
+        CallsiteBucket bucket = templates.get(template);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Reserve a slot first so that concurrent new callsites cannot overshoot the bound
+        if (callsiteCount.incrementAndGet() > maxCallsites) {
+            callsiteCount.decrementAndGet();
+            return overflowBuckets.get(level);
+        }
+        CallsiteBucket created = new CallsiteBucket(config, level, loggerName, template);
+        CallsiteBucket existing = templates.putIfAbsent(template, created);
+        if (existing != null) {
+            callsiteCount.decrementAndGet();   // Another thread registered it first
+            return existing;
+        }
+        return created;
+    }
+
+    private void emitSummaries() {
+        long now = System.nanoTime();
+        for (Map<String, CallsiteBucket> templates : callsites.values()) {
+            for (CallsiteBucket bucket : templates.values()) {
+                report(bucket);
+                // A bucket that refilled and has nothing to report behaves like a new one; free its slot
+                if (bucket.isIdle(now) && bucket.suppressed.sum() == 0 && templates.remove(bucket.template, bucket)) {
+                    callsiteCount.decrementAndGet();
+                }
+            }
+        }
+        for (CallsiteBucket bucket : overflowBuckets.values()) {
+            report(bucket);
+        }
+    }
+
+    private void report(CallsiteBucket bucket) {
+        long count = bucket.suppressed.sumThenReset();
+        if (count > 0) {
+            summaryAppender.append(String.format("[%s] suppressed %,d similar messages: %s - %s",
+                    bucket.level, count, bucket.loggerName, bucket.template));
+        }
+    }
+
+    /**
+     * Token bucket as a single theoretical arrival time (GCRA): each line pushes it one emission interval
+     * ahead, and a line is allowed while it stays within capacity intervals of now.
+     */
+    private static class CallsiteBucket {
+
+        final LogLevel level;
+        final String loggerName;
+        final String template;
+        final LongAdder suppressed = new LongAdder();
+        private final AtomicLong theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+
+        CallsiteBucket(RateLimiterConfig config, LogLevel level, String loggerName, String template) {
+            this.level = level;
+            this.loggerName = loggerName;
+            this.template = template;
+            this.emissionIntervalNanos = 1_000_000_000L / config.getRefillRatePerSec();
+            this.burstNanos = config.getCapacity() * emissionIntervalNanos;
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                long now = System.nanoTime();
+                long tat = theoreticalArrivalNanos.get();
+                long next = Math.max(tat, now) + emissionIntervalNanos;
+                if (next - now > burstNanos) {
+                    return false;
+                }
+                if (theoreticalArrivalNanos.compareAndSet(tat, next)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            return now - theoreticalArrivalNanos.get() >= 0;
+        }
+    }
+}
+
 class Main {
     public static void main(String[] args) {
 
@@ -223,5 +444,30 @@ class Main {
             logger.log(LogLevel.WARN, "This is Warn log");
 
         }
+
+        callsiteDemo(appender, logformatter);
+    }
+
+    // One hot ERROR line floods; the rare ERROR and WARN lines still get through
+    private static void callsiteDemo(LogAppender appender, Logformatter logformatter) {
+        Map<LogLevel, RateLimiterConfig> configMap = new HashMap<>();
+        configMap.put(LogLevel.ERROR, new RateLimiterConfig(5, 1));
+        configMap.put(LogLevel.WARN, new RateLimiterConfig(5, 1));
+        configMap.put(LogLevel.INFO, new RateLimiterConfig(10, 5));
+        configMap.put(LogLevel.DEBUG, new RateLimiterConfig(10, 5));
+
+        CallsiteRateLimiter rateLimiter = new CallsiteRateLimiter(configMap, 10_000, 0.01, appender, 1_000);
+        Logger logger = new CustomLogger("payments", appender, logformatter, LogLevel.DEBUG, rateLimiter);
+
+        for (int i = 0; i < 50_000; i++) {
+            logger.log(LogLevel.ERROR, "Connection to {} refused", "db-1");
+            logger.log(LogLevel.DEBUG, "Retry {} scheduled", i);
+            if (i % 10_000 == 0) {
+                logger.log(LogLevel.ERROR, "Payment {} failed: card expired", i);
+                logger.log(LogLevel.WARN, "Slow response from {}", "gateway");
+            }
+        }
+        rateLimiter.shutdown();
+        System.out.println("DEBUG lines sampled out: " + rateLimiter.getSampledOutCount());
     }
 }
\ No newline at end of file